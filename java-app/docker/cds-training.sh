@@ -0,0 +1,41 @@
+#!/bin/sh
+# AppCDS training run: starts the application with the given java arguments, sends it the
+# requests ClaimController serves, and stops it, so a JVM started with
+# -XX:ArchiveClassesAtExit writes an archive of every class those requests loaded.
+#
+# Usage: cds-training.sh <java arguments...>
+set -eu
+
+java "$@" &
+pid=$!
+
+until curl -sf -o /dev/null http://localhost:8081/actuator/health/readiness; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "Application exited during the training run" >&2
+        exit 1
+    fi
+    sleep 0.2
+done
+
+api=http://localhost:8080/api/claims
+json='Content-Type: application/json'
+for i in $(seq 1 20); do
+    curl -s -o /dev/null -H "$json" -d '{"customerId":12345,"claimType":"Auto","description":"Training claim"}' "$api"
+    curl -s -o /dev/null -H "$json" -d '{"customerId":0,"claimType":"","description":""}' "$api"
+    curl -s -o /dev/null -H "$json" -d '[{"customerId":1,"claimType":"Home","description":"Batch claim"}]' "$api/batch"
+    curl -s -o /dev/null -H 'Content-Type: application/x-ndjson' --data-binary '{"customerId":1,"claimType":"Home","description":"Batch claim"}' "$api/batch"
+    curl -s -o /dev/null "$api/1"
+    curl -s -o /dev/null -H 'If-None-Match: "0-0.0"' "$api/2"
+    curl -s -o /dev/null -H 'Accept: application/cbor' "$api/3"
+    curl -s -o /dev/null "$api/999999"
+    curl -s -o /dev/null -X PATCH -H "$json" -d '{"status":"UNDER_REVIEW"}' "$api/3/status"
+    curl -s -o /dev/null "$api?customerId=12345&status=SUBMITTED&limit=10"
+    curl -s -o /dev/null "$api/export?status=SUBMITTED"
+    curl -s -o /dev/null "$api/health"
+    curl -s -o /dev/null http://localhost:8081/actuator/prometheus
+done
+curl -s -o /dev/null --max-time 1 "$api/events" || true
+
+# The archive is written when the JVM exits
+kill -TERM "$pid"
+wait "$pid" || true
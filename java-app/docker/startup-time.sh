@@ -0,0 +1,28 @@
+#!/bin/sh
+# Measures how long the application takes to report ready and to answer its first claim
+# lookup. Pass the command that starts it, e.g.
+#   startup-time.sh java -jar target/claims-api-1.0.0.jar
+set -eu
+
+now_ms() {
+    date +%s%3N
+}
+
+start=$(now_ms)
+"$@" >/dev/null 2>&1 &
+pid=$!
+
+until curl -sf -o /dev/null http://localhost:8081/actuator/health/readiness; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "Application exited during startup" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+ready=$(now_ms)
+
+first_request=$(curl -s -o /dev/null -w '%{time_total}' http://localhost:8080/api/claims/1)
+
+echo "ready after $((ready - start)) ms, first GET /api/claims/1 took ${first_request}s"
+kill -TERM "$pid"
+wait "$pid" || true
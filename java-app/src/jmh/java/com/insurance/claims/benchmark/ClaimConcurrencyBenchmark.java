@@ -0,0 +1,82 @@
+package com.insurance.claims.benchmark;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.persistence.WriteAheadLog;
+import com.insurance.claims.persistence.WriteAheadLog.FsyncPolicy;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to serve a burst of concurrent durable claim submissions, as Tomcat would with
+ * {@code spring.threads.virtual.enabled} on (one virtual thread per request) or off (a pool
+ * of {@code server.tomcat.threads.max} = 200 platform threads). Each request blocks on the
+ * write-ahead log's group commit, so the platform pool caps how many fsyncs can be shared.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ClaimConcurrencyBenchmark {
+    
+    private static final int TOMCAT_MAX_THREADS = 200;
+    
+    @Param({"virtual", "platform"})
+    public String threads;
+    
+    @Param({"1000", "10000"})
+    public int connections;
+    
+    private Path directory;
+    private WriteAheadLog writeAheadLog;
+    private ClaimService claimService;
+    private ExecutorService executor;
+    private ClaimRequest request;
+    
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("claims-wal-benchmark");
+        writeAheadLog = new WriteAheadLog(directory, FsyncPolicy.ALWAYS, Duration.ofMillis(10));
+        claimService = new ClaimService(new ConcurrentClaimStore(), writeAheadLog);
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        request = new ClaimRequest(12345L, "Home", "Water damage in the basement");
+    }
+    
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        executor.close();
+        writeAheadLog.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public void burstOfDurableSubmissions() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            executor.execute(() -> {
+                try {
+                    claimService.createClaim(request);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,68 @@
+package com.insurance.claims.benchmark;
+
+import com.insurance.claims.ClaimsApiApplication;
+import com.insurance.claims.service.ClaimService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full request handling through the DispatcherServlet, the servlet filters, argument resolution,
+ * validation and message conversion, without the network stack.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+public class ClaimControllerBenchmark {
+    
+    private static final int CLAIMS = 10_000;
+    private static final String CLAIM_JSON =
+            "{\"customerId\":12345,\"claimType\":\"Auto\",\"description\":\"Car accident on highway\"}";
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    
+    @Setup
+    public void setUp() throws Exception {
+        context = SpringApplication.run(ClaimsApiApplication.class, "--server.port=0", "--management.server.port=0", "--logging.level.root=WARN");
+        ClaimService claimService = context.getBean(ClaimService.class);
+        claimService.clearAllClaims();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        for (int i = 0; i < CLAIMS; i++) {
+            mockMvc.perform(post("/claims").contentType(MediaType.APPLICATION_JSON).content(CLAIM_JSON));
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public MvcResult getClaimById() throws Exception {
+        long id = 1 + ThreadLocalRandom.current().nextInt(CLAIMS);
+        return mockMvc.perform(get("/claims/{id}", id)).andReturn();
+    }
+    
+    @Benchmark
+    public MvcResult submitClaim() throws Exception {
+        return mockMvc.perform(post("/claims").contentType(MediaType.APPLICATION_JSON).content(CLAIM_JSON)).andReturn();
+    }
+    
+    @Benchmark
+    public MvcResult searchByCustomer() throws Exception {
+        return mockMvc.perform(get("/claims").param("customerId", "12345").param("limit", "20")).andReturn();
+    }
+}
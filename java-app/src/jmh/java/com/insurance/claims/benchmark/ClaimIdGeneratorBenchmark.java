@@ -0,0 +1,39 @@
+package com.insurance.claims.benchmark;
+
+import com.insurance.claims.id.ClaimIdGenerator;
+import com.insurance.claims.id.SequentialClaimIdGenerator;
+import com.insurance.claims.id.SnowflakeClaimIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ID generation throughput on one node, uncontended and with 8 threads sharing the generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ClaimIdGeneratorBenchmark {
+    
+    @Param({"snowflake", "sequential"})
+    public String generator;
+    
+    private ClaimIdGenerator idGenerator;
+    
+    @Setup
+    public void setUp() {
+        idGenerator = "snowflake".equals(generator) ? new SnowflakeClaimIdGenerator(1) : new SequentialClaimIdGenerator();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public long nextId() {
+        return idGenerator.nextId();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public long nextIdContended() {
+        return idGenerator.nextId();
+    }
+}
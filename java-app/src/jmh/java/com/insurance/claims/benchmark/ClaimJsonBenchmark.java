@@ -0,0 +1,95 @@
+package com.insurance.claims.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.claims.ClaimsApiApplication;
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.json.ClaimJsonConfiguration;
+import com.insurance.claims.model.Claim;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the API payloads. {@code optimized} is the ObjectMapper exactly as
+ * Spring Boot configures it, {@code standard} the same settings without Blackbird and the ISO
+ * timestamp serializer, and {@code cbor} the optimized mapper writing CBOR. The encoded size
+ * of each payload is printed during setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ClaimJsonBenchmark {
+    
+    @Param({"standard", "optimized", "cbor"})
+    public String codec;
+    
+    private ConfigurableApplicationContext context;
+    private ObjectWriter claimWriter;
+    private ObjectWriter pageWriter;
+    private ObjectReader requestReader;
+    private Claim claim;
+    private List<Claim> page;
+    private byte[] requestJson;
+    
+    @Setup
+    public void setUp() throws Exception {
+        SpringApplication application = new SpringApplication(ClaimsApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run("--logging.level.root=WARN");
+        ObjectMapper objectMapper = switch (codec) {
+            case "standard" -> JsonMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "optimized" -> context.getBean(ObjectMapper.class);
+            case "cbor" -> ClaimJsonConfiguration.cborMapper(context.getBean(ObjectMapper.class));
+            default -> throw new IllegalArgumentException("Unknown codec " + codec);
+        };
+        
+        claimWriter = objectMapper.writerFor(Claim.class);
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Claim.class));
+        requestReader = objectMapper.readerFor(ClaimRequest.class);
+        claim = claim(1L, "Car accident on highway, rear bumper and tail lights damaged");
+        page = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            page.add(claim(id, "Car accident number " + id));
+        }
+        requestJson = objectMapper.writeValueAsBytes(new ClaimRequest(12345L, "Auto", "Car accident on highway"));
+        System.out.printf("%n%s: %d bytes per claim, %d bytes per 50-claim page, %d bytes per request%n",
+                codec, serializeClaim().length, serializePageOf50Claims().length, requestJson.length);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public byte[] serializeClaim() throws Exception {
+        return claimWriter.writeValueAsBytes(claim);
+    }
+    
+    @Benchmark
+    public byte[] serializePageOf50Claims() throws Exception {
+        return pageWriter.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public ClaimRequest deserializeClaimRequest() throws Exception {
+        return requestReader.readValue(requestJson);
+    }
+    
+    private static Claim claim(long id, String description) {
+        return new Claim(id, 12345L, "Auto", description);
+    }
+}
@@ -0,0 +1,104 @@
+package com.insurance.claims.benchmark;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.exception.InvalidStatusTransitionException;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.CompactClaimStore;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link ClaimService} hot paths under contention, for both store implementations.
+ * The "mixed" group runs six readers against two status writers on the same claims;
+ * compareAndSetHotClaim has every thread racing conditional status changes on one claim.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+public class ClaimServiceBenchmark {
+    
+    private static final ClaimStatus[] STATUSES = {ClaimStatus.UNDER_REVIEW, ClaimStatus.APPROVED, ClaimStatus.SUBMITTED};
+    private static final long HOT_CLAIM = 1L;
+    
+    @Param({"concurrent", "compact"})
+    public String store;
+    
+    @Param({"100000"})
+    public int claims;
+    
+    private ClaimService claimService;
+    private ClaimRequest request;
+    
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Reset every iteration so createClaim does not grow the store without bound
+        claimService = new ClaimService("compact".equals(store) ? new CompactClaimStore() : new ConcurrentClaimStore());
+        claimService.clearAllClaims();
+        for (int i = 0; i < claims; i++) {
+            claimService.createClaim(new ClaimRequest(10_000L + i % 5_000, "Auto", "Benchmark claim " + i));
+        }
+        claimService.updateClaimStatus(HOT_CLAIM, ClaimStatus.UNDER_REVIEW);
+        request = new ClaimRequest(12345L, "Home", "Water damage in the basement");
+    }
+    
+    @Benchmark
+    public Claim createClaim() {
+        return claimService.createClaim(request);
+    }
+    
+    @Benchmark
+    public Optional<Claim> getClaimById() {
+        return claimService.getClaimById(randomId());
+    }
+    
+    @Benchmark
+    public Optional<Claim> updateClaimStatus() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return claimService.updateClaimStatus(randomId(), STATUSES[random.nextInt(STATUSES.length)]);
+    }
+    
+    /**
+     * Read the version, then flip UNDER_REVIEW and DENIED if nobody got there first
+     * 
+     * @return true if the compare-and-set won
+     */
+    @Benchmark
+    public boolean compareAndSetHotClaim() {
+        Claim current = claimService.getClaimById(HOT_CLAIM).orElseThrow();
+        int version = current.getVersion();
+        ClaimStatus target = current.getStatus() == ClaimStatus.DENIED ? ClaimStatus.UNDER_REVIEW : ClaimStatus.DENIED;
+        try {
+            claimService.changeClaimStatus(HOT_CLAIM, target, claim -> claim.getVersion() == version);
+            return true;
+        } catch (ClaimVersionConflictException | InvalidStatusTransitionException ex) {
+            return false;
+        }
+    }
+    
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public Optional<Claim> mixedRead() {
+        return claimService.getClaimById(randomId());
+    }
+    
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Optional<Claim> mixedUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return claimService.updateClaimStatus(randomId(), STATUSES[random.nextInt(STATUSES.length)]);
+    }
+    
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(claims);
+    }
+}
@@ -0,0 +1,132 @@
+package com.insurance.claims.benchmark;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.search.DescriptionIndex;
+import com.insurance.claims.search.DescriptionQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+/**
+ * Latency of full-text description search through the {@link DescriptionIndex} against a
+ * linear scan of every description, at 1M claims. The "and" query needs three common
+ * words; the "phrase" query needs two words next to each other plus a third word. Both
+ * return the 20 best matches and the total number of matches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DescriptionSearchBenchmark {
+    
+    private static final String[] COMMON = {
+            "water", "damage", "basement", "kitchen", "roof", "hail", "storm", "wind", "tree", "fell",
+            "car", "rear", "ended", "parked", "highway", "intersection", "windshield", "cracked", "bumper", "door",
+            "fire", "smoke", "electrical", "stove", "theft", "stolen", "bicycle", "laptop", "jewelry", "window",
+            "broken", "burst", "pipe", "leak", "ceiling", "flooded", "carpet", "mold", "sewer", "backup",
+            "injury", "slipped", "ice", "stairs", "arm", "knee", "surgery", "hospital", "ambulance", "dental"
+    };
+    private static final int LIMIT = 20;
+    
+    @Param({"1000000"})
+    public int claims;
+    
+    @Param({"and", "phrase"})
+    public String queryType;
+    
+    private DescriptionIndex index;
+    private List<Claim> store;
+    private DescriptionQuery query;
+    private LongPredicate phrases;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new DescriptionIndex();
+        store = new ArrayList<>(claims);
+        long id = 0;
+        for (int i = 0; i < claims; i++) {
+            // Sparse, ascending IDs like the Snowflake generator's
+            id += 1 + random.nextInt(64);
+            Claim claim = new Claim(id, 10_000L + i % 5_000, "Home", description(random));
+            store.add(claim);
+            index.add(claim);
+        }
+        query = DescriptionQuery.parse("and".equals(queryType) ? "water damage basement" : "\"burst pipe\" kitchen");
+        // Phrases are checked against the stored description, as ClaimService does
+        phrases = query.hasPhrases() ? claimId -> query.matchesPhrases(findById(claimId).getDescription()) : null;
+    }
+    
+    @Benchmark
+    public DescriptionIndex.Result indexed() {
+        return index.search(query, LIMIT, phrases);
+    }
+    
+    /**
+     * What the service would do without the index: test every description and keep the
+     * newest matches, without ranking them
+     */
+    @Benchmark
+    public DescriptionIndex.Result linearScan() {
+        List<String> terms = query.getTerms();
+        long[] newest = new long[LIMIT];
+        int matches = 0;
+        for (Claim claim : store) {
+            String description = claim.getDescription().toLowerCase(Locale.ROOT);
+            boolean all = true;
+            for (String term : terms) {
+                if (!description.contains(term)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all && query.matchesPhrases(claim.getDescription())) {
+                newest[matches++ % LIMIT] = claim.getId();
+            }
+        }
+        return new DescriptionIndex.Result(newest, matches);
+    }
+    
+    private Claim findById(long claimId) {
+        int low = 0;
+        int high = store.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = store.get(mid).getId();
+            if (midId < claimId) {
+                low = mid + 1;
+            } else if (midId > claimId) {
+                high = mid - 1;
+            } else {
+                return store.get(mid);
+            }
+        }
+        throw new IllegalStateException("No claim " + claimId);
+    }
+    
+    /**
+     * Six to twelve words, half from the common vocabulary and half from a long tail of
+     * rarer words, as free-text descriptions tend to be
+     */
+    private static String description(SplittableRandom random) {
+        int words = 6 + random.nextInt(7);
+        StringBuilder description = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                description.append(' ');
+            }
+            if (random.nextBoolean()) {
+                description.append(COMMON[random.nextInt(COMMON.length)]);
+            } else {
+                // Skewed towards the head of the tail
+                description.append("word").append((int) (20_000 * Math.pow(random.nextDouble(), 3)));
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.insurance.claims.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The most recently submitted claim IDs, for reads and status changes to pick from
+ */
+final class ClaimIds {
+    
+    private static final int CAPACITY = 1 << 16;
+    
+    private final AtomicLongArray ids = new AtomicLongArray(CAPACITY);
+    private final AtomicLong added = new AtomicLong();
+    
+    void add(long claimId) {
+        ids.set((int) (added.getAndIncrement() & (CAPACITY - 1)), claimId);
+    }
+    
+    /**
+     * @return a random recent claim ID, or 1 (a sample claim) if none has been submitted
+     */
+    long random() {
+        long count = Math.min(added.get(), CAPACITY);
+        if (count == 0) {
+            return 1;
+        }
+        long claimId = ids.get(ThreadLocalRandom.current().nextInt((int) count));
+        // The slot may be claimed but not yet written
+        return claimId == 0 ? 1 : claimId;
+    }
+    
+    long size() {
+        return Math.min(added.get(), CAPACITY);
+    }
+}
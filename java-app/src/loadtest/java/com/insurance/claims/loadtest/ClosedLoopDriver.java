@@ -0,0 +1,48 @@
+package com.insurance.claims.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a fixed number of requests outstanding (a closed workload model): each connection
+ * is a virtual thread that sends its next request as soon as the previous one is answered.
+ * This is how the service behaves behind that many connected clients; throughput is an
+ * outcome rather than an input, and response times equal service times.
+ */
+final class ClosedLoopDriver {
+    
+    private final OpenLoopDriver requests;
+    private final int connections;
+    
+    /**
+     * @param requests sends the requests, with its operation mix
+     * @param connections the number of requests kept outstanding
+     */
+    ClosedLoopDriver(OpenLoopDriver requests, int connections) {
+        this.requests = requests;
+        this.connections = connections;
+    }
+    
+    /**
+     * Drives load for the given time and waits for the last requests to be answered
+     * 
+     * @param duration how long to keep sending
+     * @return the latencies and outcomes of the requests sent
+     */
+    LatencyStats run(Duration duration) {
+        LatencyStats stats = new LatencyStats();
+        long end = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                executor.execute(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end && !Thread.currentThread().isInterrupted()) {
+                        requests.send(requests.nextOperation(), now, stats);
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+}
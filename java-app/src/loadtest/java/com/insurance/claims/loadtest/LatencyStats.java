@@ -0,0 +1,116 @@
+package com.insurance.claims.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes per operation, safe to record from any number of threads.
+ * Two latencies are kept for every request:
+ * <ul>
+ *   <li>response time, from the moment the request was due to be sent. This is what a
+ *       client arriving at that moment would have seen, including any time spent waiting
+ *       for the load generator to get to it, so a stall is not hidden by coordinated
+ *       omission;</li>
+ *   <li>service time, from the moment it was actually sent.</li>
+ * </ul>
+ * A request fails if it could not be sent or completed, timed out, or got a 5xx or 429.
+ * Other 4xx responses (e.g. 409 for a status transition that is not allowed) are
+ * counted by status code but are not failures.
+ */
+final class LatencyStats {
+    
+    static final class OperationStats {
+        
+        private final Recorder responseTime = new Recorder(3);
+        private final Recorder serviceTime = new Recorder(3);
+        private final ConcurrentHashMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private Histogram responseHistogram;
+        private Histogram serviceHistogram;
+        
+        /**
+         * @return response times in nanoseconds; taking them ends recording
+         */
+        Histogram responseTimes() {
+            if (responseHistogram == null) {
+                responseHistogram = responseTime.getIntervalHistogram();
+            }
+            return responseHistogram;
+        }
+        
+        /**
+         * @return service times in nanoseconds; taking them ends recording
+         */
+        Histogram serviceTimes() {
+            if (serviceHistogram == null) {
+                serviceHistogram = serviceTime.getIntervalHistogram();
+            }
+            return serviceHistogram;
+        }
+        
+        Map<Integer, Long> statusCodes() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statusCodes.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+        
+        /**
+         * @return failed requests, including dropped ones
+         */
+        long failures() {
+            return failures.sum();
+        }
+        
+        long dropped() {
+            return dropped.sum();
+        }
+    }
+    
+    private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+    
+    LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationStats());
+        }
+    }
+    
+    void recordResponse(Operation operation, int status, long responseNanos, long serviceNanos) {
+        OperationStats stats = operations.get(operation);
+        stats.responseTime.recordValue(responseNanos);
+        stats.serviceTime.recordValue(serviceNanos);
+        stats.statusCodes.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status >= 500 || status == 429) {
+            stats.failures.increment();
+        }
+    }
+    
+    /**
+     * Records a request that failed without a response, e.g. a timeout or a refused connection
+     */
+    void recordFailure(Operation operation, long responseNanos, long serviceNanos) {
+        OperationStats stats = operations.get(operation);
+        stats.responseTime.recordValue(responseNanos);
+        stats.serviceTime.recordValue(serviceNanos);
+        stats.failures.increment();
+    }
+    
+    /**
+     * Records a request that was never sent because too many were outstanding
+     */
+    void recordDropped(Operation operation) {
+        OperationStats stats = operations.get(operation);
+        stats.dropped.increment();
+        stats.failures.increment();
+    }
+    
+    OperationStats get(Operation operation) {
+        return operations.get(operation);
+    }
+}
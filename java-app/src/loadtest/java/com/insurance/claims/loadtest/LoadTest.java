@@ -0,0 +1,206 @@
+package com.insurance.claims.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Load test for the claims API: boots the service jar (or uses --target), drives a
+ * constant-rate mix of submissions, reads and status changes, and checks p50/p99/p99.9
+ * response times, the failure rate and the throughput against SLO thresholds. Exits with
+ * status 1 if any threshold is missed, so a regression fails the build.
+ * <p>
+ * Run with {@code mvn -Pload-test -DskipTests verify -Dloadtest.args="--rate=500 --duration=60s"};
+ * see {@link LoadTestConfig} for the settings.
+ */
+public final class LoadTest {
+    
+    private static final int SEED_CLAIMS = 100;
+    
+    private LoadTest() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        List<String> violations;
+        ServiceProcess service = null;
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            URI baseUri;
+            if (config.target().isEmpty()) {
+                System.out.println("Booting " + config.jar() + " " + String.join(" ", config.appArgs()));
+                service = ServiceProcess.start(config.jar(), config.jvmArgs(), config.appArgs(),
+                        config.outputDirectory().resolve("service.log"));
+                baseUri = service.baseUri();
+            } else {
+                baseUri = URI.create(config.target().endsWith("/") ? config.target() : config.target() + "/");
+            }
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(config.requestTimeout())
+                    .executor(clientExecutor)
+                    .build();
+            OpenLoopDriver driver = new OpenLoopDriver(client, baseUri, new ClaimIds(), config);
+            String load = config.connections() > 0
+                    ? config.connections() + " connections"
+                    : String.format(Locale.ROOT, "%.0f requests/s", config.rate());
+            
+            // Reads and status changes need claims to pick from
+            for (int i = 0; i < SEED_CLAIMS; i++) {
+                int status = driver.sendOnce(Operation.SUBMIT);
+                if (status != 201) {
+                    throw new IllegalStateException("Seeding claims failed with HTTP " + status);
+                }
+            }
+            System.out.printf(Locale.ROOT, "Warming up with %s for %s%n", load, format(config.warmup()));
+            run(driver, config, config.warmup());
+            System.out.printf(Locale.ROOT, "Measuring with %s for %s against %s%n", load, format(config.duration()), baseUri);
+            violations = report(config, run(driver, config, config.duration()), System.out);
+        } finally {
+            if (service != null) {
+                service.close();
+            }
+        }
+        
+        System.out.println();
+        if (violations.isEmpty()) {
+            System.out.println("All SLOs met");
+        } else {
+            System.out.println("SLO violated:");
+            violations.forEach(violation -> System.out.println("  " + violation));
+            System.exit(1);
+        }
+    }
+    
+    private static LatencyStats run(OpenLoopDriver driver, LoadTestConfig config, Duration duration) {
+        return config.connections() > 0
+                ? new ClosedLoopDriver(driver, config.connections()).run(duration)
+                : driver.run(duration);
+    }
+    
+    /**
+     * Prints the results, writes each latency distribution to the output directory, and
+     * checks the SLOs
+     * 
+     * @return a description of each missed threshold
+     */
+    static List<String> report(LoadTestConfig config, LatencyStats stats, PrintStream out) throws IOException {
+        LoadTestConfig.Slo slo = config.slo();
+        double seconds = config.duration().toNanos() / 1e9;
+        Histogram all = new Histogram(3);
+        Histogram allService = new Histogram(3);
+        long failures = 0;
+        long dropped = 0;
+        List<String> violations = new ArrayList<>();
+        Files.createDirectories(config.outputDirectory());
+        
+        out.println();
+        out.printf(Locale.ROOT, "%-10s %9s %11s %9s %9s %9s %9s %12s %8s  %s%n", "Operation", "Requests", "Throughput",
+                "p50", "p99", "p99.9", "max", "p99 service", "Failed", "Status codes");
+        for (Operation operation : config.mix().keySet()) {
+            LatencyStats.OperationStats operationStats = stats.get(operation);
+            Histogram responseTimes = operationStats.responseTimes();
+            Histogram serviceTimes = operationStats.serviceTimes();
+            all.add(responseTimes);
+            allService.add(serviceTimes);
+            failures += operationStats.failures();
+            dropped += operationStats.dropped();
+            String codes = operationStats.statusCodes().entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .collect(Collectors.joining(" "));
+            if (operationStats.dropped() > 0) {
+                codes += " dropped=" + operationStats.dropped();
+            }
+            printRow(out, operation.label(), responseTimes, serviceTimes, operationStats.failures(), seconds, codes);
+            checkLatency(operation.label(), responseTimes, slo, violations);
+            write(config.outputDirectory().resolve(operation.label() + ".hgrm"), responseTimes);
+            write(config.outputDirectory().resolve(operation.label() + "-service.hgrm"), serviceTimes);
+        }
+        printRow(out, "all", all, allService, failures, seconds, "");
+        checkLatency("all", all, slo, violations);
+        write(config.outputDirectory().resolve("all.hgrm"), all);
+        out.println();
+        out.println("Response times are measured from each request's scheduled start; service times from when it was sent.");
+        
+        long requests = all.getTotalCount() + dropped;
+        double errorRate = requests == 0 ? 1 : (double) failures / requests;
+        if (errorRate > slo.maxErrorRate()) {
+            violations.add(String.format(Locale.ROOT, "failure rate %.4f%% > %.4f%% (%d of %d requests)",
+                    errorRate * 100, slo.maxErrorRate() * 100, failures, requests));
+        }
+        double throughput = (requests - failures) / seconds;
+        if (config.connections() > 0) {
+            out.printf(Locale.ROOT, "Throughput with %d connections: %.1f/s%n", config.connections(), throughput);
+        } else if (throughput < config.rate() * slo.minThroughput()) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f/s < %.0f%% of the target %.0f/s",
+                    throughput, slo.minThroughput() * 100, config.rate()));
+        }
+        return violations;
+    }
+    
+    private static void printRow(PrintStream out, String label, Histogram responseTimes, Histogram serviceTimes,
+                                 long failures, double seconds, String codes) {
+        out.printf(Locale.ROOT, "%-10s %9d %9.1f/s %9s %9s %9s %9s %12s %8d  %s%n", label, responseTimes.getTotalCount(),
+                responseTimes.getTotalCount() / seconds,
+                formatNanos(responseTimes.getValueAtPercentile(50)),
+                formatNanos(responseTimes.getValueAtPercentile(99)),
+                formatNanos(responseTimes.getValueAtPercentile(99.9)),
+                formatNanos(responseTimes.getMaxValue()),
+                formatNanos(serviceTimes.getValueAtPercentile(99)),
+                failures, codes);
+    }
+    
+    private static void checkLatency(String label, Histogram responseTimes, LoadTestConfig.Slo slo, List<String> violations) {
+        if (responseTimes.getTotalCount() == 0) {
+            return;
+        }
+        checkPercentile(label, responseTimes, "p50", 50, slo.p50(), violations);
+        checkPercentile(label, responseTimes, "p99", 99, slo.p99(), violations);
+        checkPercentile(label, responseTimes, "p99.9", 99.9, slo.p999(), violations);
+    }
+    
+    private static void checkPercentile(String label, Histogram responseTimes, String name, double percentile,
+                                        Duration threshold, List<String> violations) {
+        long value = responseTimes.getValueAtPercentile(percentile);
+        if (value > threshold.toNanos()) {
+            violations.add(label + " " + name + " " + formatNanos(value) + " > " + format(threshold));
+        }
+    }
+    
+    /**
+     * Writes a percentile distribution in milliseconds, the format HdrHistogram plotters read
+     */
+    private static void write(Path file, Histogram histogram) throws IOException {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+    
+    private static String format(Duration duration) {
+        return formatNanos(duration.toNanos());
+    }
+    
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000L) {
+            return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+        }
+        if (nanos >= 1_000_000L) {
+            return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%dus", nanos / 1_000);
+    }
+}
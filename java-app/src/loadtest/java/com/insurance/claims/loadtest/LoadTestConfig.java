@@ -0,0 +1,119 @@
+package com.insurance.claims.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, from {@code --name=value} arguments. Every setting has a default
+ * modest enough to pass on a developer machine, so a run without arguments is a smoke test.
+ * 
+ * @param target base URL of a running service, e.g. http://localhost:8080/api; empty to boot the jar
+ * @param jar the service jar to boot when there is no target
+ * @param appArgs extra arguments for the booted service, space separated
+ * @param jvmArgs JVM options for the booted service, space separated
+ * @param rate requests per second, across all operations
+ * @param connections if positive, keep this many requests outstanding instead of sending at {@code rate}
+ * @param warmup how long to run before measuring
+ * @param duration how long to measure
+ * @param mix relative weight of each operation
+ * @param maxInFlight requests outstanding beyond this are dropped and count as failures
+ * @param requestTimeout how long a request may take before it counts as failed
+ * @param outputDirectory where latency distributions are written
+ * @param slo the thresholds a run must meet
+ */
+record LoadTestConfig(String target, Path jar, List<String> appArgs, List<String> jvmArgs,
+                      double rate, int connections, Duration warmup, Duration duration, Map<Operation, Integer> mix,
+                      int maxInFlight, Duration requestTimeout, Path outputDirectory, Slo slo) {
+    
+    /**
+     * Latency and error thresholds. Latency thresholds apply to every operation and to
+     * all operations together.
+     * 
+     * @param p50 the highest acceptable median response time
+     * @param p99 the highest acceptable 99th percentile response time
+     * @param p999 the highest acceptable 99.9th percentile response time
+     * @param maxErrorRate the highest acceptable fraction of failed requests
+     * @param minThroughput the lowest acceptable completed rate, as a fraction of the target rate;
+     *        not checked with a fixed number of connections, where throughput is an outcome
+     */
+    record Slo(Duration p50, Duration p99, Duration p999, double maxErrorRate, double minThroughput) {
+    }
+    
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                take(values, "target", ""),
+                Path.of(take(values, "jar", "target/claims-api-1.0.0.jar")),
+                words(take(values, "app-args", "")),
+                words(take(values, "jvm-args", "-Xmx1g")),
+                Double.parseDouble(take(values, "rate", "200")),
+                Integer.parseInt(take(values, "connections", "0")),
+                duration(take(values, "warmup", "10s")),
+                duration(take(values, "duration", "30s")),
+                mix(take(values, "mix", "submit:20,get:70,status:10")),
+                Integer.parseInt(take(values, "max-in-flight", "10000")),
+                duration(take(values, "timeout", "10s")),
+                Path.of(take(values, "output", "target/loadtest")),
+                new Slo(duration(take(values, "slo.p50", "10ms")),
+                        duration(take(values, "slo.p99", "100ms")),
+                        duration(take(values, "slo.p999", "500ms")),
+                        Double.parseDouble(take(values, "slo.max-error-rate", "0.001")),
+                        Double.parseDouble(take(values, "slo.min-throughput", "0.95"))));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown settings " + values.keySet());
+        }
+        return config;
+    }
+    
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+    
+    private static List<String> words(String value) {
+        return value.isBlank() ? List.of() : new ArrayList<>(Arrays.asList(value.trim().split("\\s+")));
+    }
+    
+    /**
+     * Parses 500ms, 30s or 2m
+     */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Expected a duration such as 500ms, 30s or 2m, got " + value);
+        };
+    }
+    
+    /**
+     * Parses submit:20,get:70,status:10
+     */
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Operation.named(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+}
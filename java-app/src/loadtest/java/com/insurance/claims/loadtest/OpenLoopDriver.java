@@ -0,0 +1,136 @@
+package com.insurance.claims.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a constant arrival rate regardless of how fast the service answers
+ * (an open workload model). Each request runs on its own virtual thread, so a slow
+ * response never delays the next arrival, and its latency is measured from its scheduled
+ * arrival time. If the driver itself falls behind, late arrivals are sent at once and the
+ * delay counts against their latency.
+ */
+final class OpenLoopDriver {
+    
+    private final HttpClient client;
+    private final URI baseUri;
+    private final ClaimIds claimIds;
+    private final double rate;
+    private final int maxInFlight;
+    private final Duration requestTimeout;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    OpenLoopDriver(HttpClient client, URI baseUri, ClaimIds claimIds, LoadTestConfig config) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.claimIds = claimIds;
+        this.rate = config.rate();
+        this.maxInFlight = config.maxInFlight();
+        this.requestTimeout = config.requestTimeout();
+        Map<Operation, Integer> mix = config.mix();
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The operation mix needs a positive weight");
+        }
+    }
+    
+    /**
+     * Drives load for the given time and waits for the requests still in flight
+     * 
+     * @param duration how long to keep sending
+     * @return the latencies and outcomes of the requests sent
+     */
+    LatencyStats run(Duration duration) {
+        LatencyStats stats = new LatencyStats();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double interval = 1e9 / rate;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduled = start + (long) (i * interval);
+                if (scheduled >= end) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < scheduled) {
+                    LockSupport.parkNanos(scheduled - now);
+                }
+                Operation operation = nextOperation();
+                if (inFlight.incrementAndGet() > maxInFlight) {
+                    inFlight.decrementAndGet();
+                    stats.recordDropped(operation);
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        send(operation, scheduled, stats);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+    
+    /**
+     * Sends one request synchronously, outside of any measurement
+     * 
+     * @return the response status
+     */
+    int sendOnce(Operation operation) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(operation.request(baseUri, claimIds, requestTimeout),
+                HttpResponse.BodyHandlers.ofString());
+        operation.onResponse(response, claimIds);
+        return response.statusCode();
+    }
+    
+    /**
+     * Sends one request and records its outcome
+     * 
+     * @param scheduled the System.nanoTime() its response time is measured from
+     */
+    void send(Operation operation, long scheduled, LatencyStats stats) {
+        HttpRequest request = operation.request(baseUri, claimIds, requestTimeout);
+        long sent = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long done = System.nanoTime();
+            stats.recordResponse(operation, response.statusCode(), done - scheduled, done - sent);
+            operation.onResponse(response, claimIds);
+        } catch (IOException ex) {
+            long done = System.nanoTime();
+            stats.recordFailure(operation, done - scheduled, done - sent);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new AssertionError();
+    }
+}
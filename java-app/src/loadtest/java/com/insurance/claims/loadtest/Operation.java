@@ -0,0 +1,103 @@
+package com.insurance.claims.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests the load test sends. Reads and status changes pick a random claim from
+ * those submitted so far.
+ */
+enum Operation {
+    
+    SUBMIT("submit") {
+        @Override
+        HttpRequest request(URI baseUri, ClaimIds claimIds, Duration timeout) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String body = "{\"customerId\":" + random.nextInt(1, 100_000)
+                    + ",\"claimType\":\"" + CLAIM_TYPES[random.nextInt(CLAIM_TYPES.length)]
+                    + "\",\"description\":\"" + DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)] + "\"}";
+            return HttpRequest.newBuilder(baseUri.resolve("claims"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        
+        @Override
+        void onResponse(HttpResponse<String> response, ClaimIds claimIds) {
+            if (response.statusCode() == 201) {
+                claimIds.add(parseId(response.body()));
+            }
+        }
+    },
+    
+    GET("get") {
+        @Override
+        HttpRequest request(URI baseUri, ClaimIds claimIds, Duration timeout) {
+            return HttpRequest.newBuilder(baseUri.resolve("claims/" + claimIds.random()))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+        }
+    },
+    
+    STATUS_UPDATE("status") {
+        @Override
+        HttpRequest request(URI baseUri, ClaimIds claimIds, Duration timeout) {
+            // Unconditional change; transitions the claim's current status does not allow get 409
+            String status = TARGET_STATUSES[ThreadLocalRandom.current().nextInt(TARGET_STATUSES.length)];
+            return HttpRequest.newBuilder(baseUri.resolve("claims/" + claimIds.random() + "/status"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .header("If-Match", "*")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"))
+                    .build();
+        }
+    };
+    
+    private static final String[] CLAIM_TYPES = {"Auto", "Home", "Health", "Travel"};
+    private static final String[] DESCRIPTIONS = {
+            "Rear-ended at a traffic light",
+            "Water damage from burst pipe in basement",
+            "Emergency room visit for broken arm",
+            "Hail damage to roof and gutters",
+            "Laptop stolen from hotel room"
+    };
+    private static final String[] TARGET_STATUSES = {"UNDER_REVIEW", "APPROVED", "DENIED"};
+    
+    private final String label;
+    
+    Operation(String label) {
+        this.label = label;
+    }
+    
+    String label() {
+        return label;
+    }
+    
+    static Operation named(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + label + "; expected submit, get or status");
+    }
+    
+    abstract HttpRequest request(URI baseUri, ClaimIds claimIds, Duration timeout);
+    
+    void onResponse(HttpResponse<String> response, ClaimIds claimIds) {
+    }
+    
+    private static long parseId(String json) {
+        int start = json.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < json.length() && Character.isDigit(json.charAt(end))) {
+            end++;
+        }
+        return Long.parseLong(json, start, end, 10);
+    }
+}
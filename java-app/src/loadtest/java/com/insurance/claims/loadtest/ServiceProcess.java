@@ -0,0 +1,109 @@
+package com.insurance.claims.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The service under test, booted from its jar in a separate JVM on free ports so that the
+ * load generator and the service do not share a heap or GC pauses
+ */
+final class ServiceProcess implements AutoCloseable {
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    
+    private final Process process;
+    private final URI baseUri;
+    
+    private ServiceProcess(Process process, URI baseUri) {
+        this.process = process;
+        this.baseUri = baseUri;
+    }
+    
+    /**
+     * Starts the service and waits until its readiness probe passes
+     * 
+     * @param jar the service jar
+     * @param jvmArgs JVM options for the service
+     * @param appArgs extra Spring Boot arguments for the service
+     * @param log file that receives the service's output
+     * @return the running service
+     */
+    static ServiceProcess start(Path jar, List<String> jvmArgs, List<String> appArgs, Path log)
+            throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " does not exist; run mvn package first or pass --target");
+        }
+        int port = freePort();
+        int managementPort = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=" + managementPort);
+        command.addAll(appArgs);
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ServiceProcess service = new ServiceProcess(process, URI.create("http://localhost:" + port + "/api/"));
+        try {
+            service.awaitReady(URI.create("http://localhost:" + managementPort + "/actuator/health/readiness"), log);
+        } catch (IOException | InterruptedException | RuntimeException ex) {
+            service.close();
+            throw ex;
+        }
+        return service;
+    }
+    
+    URI baseUri() {
+        return baseUri;
+    }
+    
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+    
+    private void awaitReady(URI readiness, Path log) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The service exited with " + process.exitValue() + "; see " + log);
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(readiness).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("The service was not ready within " + STARTUP_TIMEOUT + "; see " + log);
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
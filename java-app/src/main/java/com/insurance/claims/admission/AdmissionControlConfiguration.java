@@ -0,0 +1,49 @@
+package com.insurance.claims.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+public class AdmissionControlConfiguration {
+    
+    /**
+     * Concurrency limits on {@code /claims/*}, on unless {@code claims.admission.enabled=false}.
+     * Registered ahead of every other filter so shed requests cost as little as possible.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.admission.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Value("${claims.admission.read.initial-limit:200}") int readLimit,
+            @Value("${claims.admission.write.initial-limit:100}") int writeLimit,
+            @Value("${claims.admission.min-limit:8}") int minLimit,
+            @Value("${claims.admission.max-limit:2000}") int maxLimit,
+            @Value("${claims.admission.health-limit:16}") int healthLimit,
+            @Value("${claims.admission.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                ConcurrencyLimiter.adaptive(readLimit, minLimit, maxLimit),
+                ConcurrencyLimiter.adaptive(writeLimit, minLimit, maxLimit),
+                ConcurrencyLimiter.fixed(healthLimit),
+                retryAfter, objectMapper);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/claims", "/claims/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+    
+    /**
+     * Picked up by Spring Boot like any other {@link io.micrometer.core.instrument.binder.MeterBinder} bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.admission.enabled", havingValue = "true", matchIfMissing = true)
+    public AdmissionMetrics admissionMetrics(FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter) {
+        return new AdmissionMetrics(admissionControlFilter.getFilter());
+    }
+}
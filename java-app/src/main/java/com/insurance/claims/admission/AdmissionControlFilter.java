@@ -0,0 +1,120 @@
+package com.insurance.claims.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.claims.exception.GlobalExceptionHandler.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Admission control in front of the claim endpoints. Each kind of request has its own
+ * {@link ConcurrencyLimiter}, so a burst of one kind cannot starve the others:
+ * <ul>
+ *   <li>writes (POST, PATCH, ...) are shed first, with 429 Too Many Requests, telling
+ *       clients to slow their submissions;</li>
+ *   <li>reads (GET, HEAD) have their own, larger limit and are shed with 503;</li>
+ *   <li>{@code /claims/health} has a small fixed limit and is shed with 503.</li>
+ * </ul>
+ * A rejected request fails at once with a Retry-After header instead of queueing.
+ * Event subscriptions and exports stream for minutes after the handler returns, so they
+ * are not counted; the broker caps subscribers separately.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    /**
+     * The kinds of request with separate limits
+     */
+    public enum RequestClass {
+        READ, WRITE, HEALTH;
+        
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+    
+    private final ConcurrencyLimiter[] limiters = new ConcurrencyLimiter[RequestClass.values().length];
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    
+    public AdmissionControlFilter(ConcurrencyLimiter reads, ConcurrencyLimiter writes, ConcurrencyLimiter health,
+                                  Duration retryAfter, ObjectMapper objectMapper) {
+        limiters[RequestClass.READ.ordinal()] = reads;
+        limiters[RequestClass.WRITE.ordinal()] = writes;
+        limiters[RequestClass.HEALTH.ordinal()] = health;
+        // Retry-After is whole seconds
+        this.retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * @return the limiter for one kind of request
+     */
+    public ConcurrencyLimiter limiterFor(RequestClass requestClass) {
+        return limiters[requestClass.ordinal()];
+    }
+    
+    /**
+     * Sorts a request into a limit
+     * 
+     * @param method the HTTP method
+     * @param path the path below the context path, e.g. /claims/42
+     * @return the request's class, or null if it is not limited
+     */
+    static RequestClass classify(String method, String path) {
+        if (path.equals("/claims/health")) {
+            return RequestClass.HEALTH;
+        }
+        if (path.equals("/claims/events") || path.equals("/claims/export")) {
+            return null;
+        }
+        return switch (method) {
+            case "GET", "HEAD", "OPTIONS" -> RequestClass.READ;
+            default -> RequestClass.WRITE;
+        };
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RequestClass requestClass = classify(request.getMethod(), path);
+        if (requestClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ConcurrencyLimiter limiter = limiterFor(requestClass);
+        int inFlight = limiter.tryAcquire();
+        if (inFlight == 0) {
+            reject(response, requestClass);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start, inFlight);
+        }
+    }
+    
+    private void reject(HttpServletResponse response, RequestClass requestClass) throws IOException {
+        HttpStatus status = requestClass == RequestClass.WRITE ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        response.setStatus(status.value());
+        // Spread retries over up to twice the delay so rejected clients do not return together
+        long retryAfter = retryAfterSeconds + ThreadLocalRandom.current().nextLong(retryAfterSeconds + 1);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorResponse body = new ErrorResponse(status.getReasonPhrase(),
+                "Too many concurrent " + requestClass.tag + " requests, retry after " + retryAfter + "s",
+                LocalDateTime.now(), null);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,40 @@
+package com.insurance.claims.admission;
+
+import com.insurance.claims.admission.AdmissionControlFilter.RequestClass;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes each admission limiter's current limit, requests in flight and rejections,
+ * tagged with the request class. Everything is read from the limiters, so the filter
+ * itself records nothing.
+ */
+public class AdmissionMetrics implements MeterBinder {
+    
+    private final AdmissionControlFilter filter;
+    
+    public AdmissionMetrics(AdmissionControlFilter filter) {
+        this.filter = filter;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RequestClass requestClass : RequestClass.values()) {
+            ConcurrencyLimiter limiter = filter.limiterFor(requestClass);
+            Gauge.builder("claims.admission.limit", limiter, ConcurrencyLimiter::getLimit)
+                    .description("Requests allowed in flight")
+                    .tag("class", requestClass.tag)
+                    .register(registry);
+            Gauge.builder("claims.admission.inflight", limiter, ConcurrencyLimiter::getInFlight)
+                    .description("Requests in flight")
+                    .tag("class", requestClass.tag)
+                    .register(registry);
+            FunctionCounter.builder("claims.admission.rejected", limiter, ConcurrencyLimiter::getRejected)
+                    .description("Requests rejected by admission control")
+                    .tag("class", requestClass.tag)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.insurance.claims.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of requests of one kind in flight. An adaptive limiter adjusts its
+ * limit from the latency of completed requests, in the style of a gradient limit:
+ * <ul>
+ *   <li>a short-term average latency follows the last few dozen requests and a long-term
+ *       average the last few hundred;</li>
+ *   <li>while the short-term average stays within {@value #TOLERANCE} times the long-term
+ *       one, the limit grows by a fraction of its square root per sample, probing for more
+ *       capacity;</li>
+ *   <li>once requests queue and latency climbs past that, the limit shrinks in proportion
+ *       to the ratio of the two averages, by up to a tenth per sample.</li>
+ * </ul>
+ * The limit only grows while at least half of it is in use, so a quiet period does not
+ * leave a limit far above anything that has been measured.
+ * <p>
+ * Acquiring and releasing are lock-free. Samples update the averages under a lock that
+ * is only tried, never waited for: under contention some samples are skipped, which the
+ * averages tolerate.
+ */
+public class ConcurrencyLimiter {
+    
+    static final double TOLERANCE = 1.5;
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.01;
+    private static final double SMOOTHING = 0.2;
+    
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile int limit;
+    
+    // Guarded by sampleLock
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+    
+    private ConcurrencyLimiter(boolean adaptive, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max, got "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+    
+    /**
+     * @param initialLimit the limit before any latency has been measured
+     * @param minLimit the limit never drops below this
+     * @param maxLimit the limit never grows above this
+     * @return a limiter whose limit follows the observed latency
+     */
+    public static ConcurrencyLimiter adaptive(int initialLimit, int minLimit, int maxLimit) {
+        return new ConcurrencyLimiter(true, initialLimit, minLimit, maxLimit);
+    }
+    
+    /**
+     * @param limit the number of requests allowed in flight
+     * @return a limiter that never changes its limit
+     */
+    public static ConcurrencyLimiter fixed(int limit) {
+        return new ConcurrencyLimiter(false, limit, limit, limit);
+    }
+    
+    /**
+     * Claims a slot if fewer requests than the limit are in flight. A successful call
+     * must be followed by {@link #release} once the request completes.
+     * 
+     * @return the number of requests in flight including this one, or 0 if the limit has been reached
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+    
+    /**
+     * Frees a slot and, for an adaptive limiter, feeds the request's latency into the limit
+     * 
+     * @param latencyNanos how long the request took
+     * @param inFlightAtStart the value {@link #tryAcquire} returned for it
+     */
+    public void release(long latencyNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        if (adaptive && sampleLock.tryLock()) {
+            try {
+                onSample(Math.max(latencyNanos, 1), inFlightAtStart);
+            } finally {
+                sampleLock.unlock();
+            }
+        }
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * @return the number of {@link #tryAcquire} calls turned away since the limiter was created
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    private void onSample(double rtt, int inFlightAtStart) {
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_WEIGHT;
+        longRtt += (rtt - longRtt) * LONG_WEIGHT;
+        // After a spike the long-term average lags far above; let it catch up with recovery
+        if (longRtt > 2 * shortRtt) {
+            longRtt *= 0.95;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        if (gradient == 1.0 && inFlightAtStart < estimatedLimit / 2) {
+            // Not using the limit, so latency says nothing about more capacity
+            return;
+        }
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,237 @@
+package com.insurance.claims.cluster;
+
+import com.insurance.claims.id.ClaimIdGenerator;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Routes requests for a claim to the replica that owns it. In cluster mode
+ * ({@code claims.cluster.enabled=true}) every replica builds the same
+ * {@link ConsistentHashRing} from the static peer list, creates claims only under IDs
+ * it owns, and sends requests for other claims to their owner - either by forwarding
+ * them and relaying the response, or by answering with a 307 redirect so the client
+ * talks to the owner directly. Outside cluster mode every claim is local.
+ */
+@Component
+public class ClaimRouter {
+    
+    /** Marks a forwarded request, so a replica whose ring disagrees never forwards it again */
+    static final String FORWARDED_BY = "X-Claims-Forwarded-By";
+    
+    private static final Logger log = LoggerFactory.getLogger(ClaimRouter.class);
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.IF_MATCH, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+    private static final List<String> RELAYED_RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.LOCATION);
+    
+    /**
+     * How a request for another replica's claim is answered
+     */
+    public enum Routing {
+        /** Proxy the request to the owner and relay its response */
+        FORWARD,
+        /** Answer with 307 Temporary Redirect to the owner, which keeps the method and body */
+        REDIRECT
+    }
+    
+    private final boolean enabled;
+    private final String self;
+    private final ConsistentHashRing ring;
+    private final Routing routing;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    
+    @Autowired
+    public ClaimRouter(@Value("${claims.cluster.enabled:false}") boolean enabled,
+                       @Value("${claims.cluster.self:}") String self,
+                       @Value("${claims.cluster.peers:}") String[] peers,
+                       @Value("${claims.cluster.virtual-nodes:128}") int virtualNodes,
+                       @Value("${claims.cluster.routing:forward}") Routing routing,
+                       @Value("${claims.cluster.forward-timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.self = normalize(self);
+        this.routing = routing;
+        this.timeout = timeout;
+        if (enabled) {
+            List<String> members = Arrays.stream(peers).map(ClaimRouter::normalize).filter(p -> !p.isEmpty()).toList();
+            this.ring = new ConsistentHashRing(members, virtualNodes);
+            if (!ring.contains(this.self)) {
+                throw new IllegalStateException("claims.cluster.self (" + self + ") must be one of claims.cluster.peers");
+            }
+            this.httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(timeout)
+                    .build();
+            log.info("Cluster mode: {} of {} replicas, {} requests for other replicas' claims",
+                    this.self, ring.getNodes().size(), routing.name().toLowerCase());
+        } else {
+            this.ring = null;
+            this.httpClient = null;
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * @return whether this replica owns a claim; always true outside cluster mode
+     */
+    public boolean isLocal(long claimId) {
+        return !enabled || self.equals(ring.ownerOf(claimId));
+    }
+    
+    /**
+     * @return the base URL of the replica that owns a claim
+     */
+    public String ownerOf(long claimId) {
+        return enabled ? ring.ownerOf(claimId) : self;
+    }
+    
+    /**
+     * Wraps an ID generator so that this replica only creates claims under IDs it owns.
+     * Roughly one ID in n is owned, so creating a claim draws about n IDs.
+     * 
+     * @param generator the underlying generator
+     * @return the generator itself outside cluster mode, otherwise the filtering wrapper
+     */
+    public ClaimIdGenerator ownedIds(ClaimIdGenerator generator) {
+        if (!enabled) {
+            return generator;
+        }
+        return new ClaimIdGenerator() {
+            @Override
+            public long nextId() {
+                long id;
+                do {
+                    id = generator.nextId();
+                } while (!isLocal(id));
+                return id;
+            }
+            
+            @Override
+            public long[] nextIds(int count) {
+                long[] ids = new long[count];
+                int filled = 0;
+                while (filled < count) {
+                    // About 1/replicas of each reserved block is owned here; reserve again for the rest
+                    for (long id : generator.nextIds(count - filled)) {
+                        if (isLocal(id)) {
+                            ids[filled++] = id;
+                        }
+                    }
+                }
+                return ids;
+            }
+            
+            @Override
+            public void advancePast(long usedId) {
+                generator.advancePast(usedId);
+            }
+            
+            @Override
+            public void reset() {
+                generator.reset();
+            }
+        };
+    }
+    
+    /**
+     * Sends a request for a claim to its owner when that is another replica
+     * 
+     * @param claimId the claim the request is about
+     * @param request the incoming request
+     * @param body the request body to forward, or null if there is none
+     * @return the owner's response (or a redirect to it), or empty if this replica should serve the request
+     */
+    public Optional<ResponseEntity<byte[]>> route(long claimId, HttpServletRequest request, byte[] body) {
+        if (servesLocally(claimId, request)) {
+            return Optional.empty();
+        }
+        String owner = ring.ownerOf(claimId);
+        return Optional.of(routing == Routing.REDIRECT
+                ? redirectTo(owner, request)
+                : forward(owner, request, body));
+    }
+    
+    /**
+     * Redirects a request for a claim to its owner, for requests such as event streams
+     * that cannot be relayed as one response
+     * 
+     * @return a 307 redirect to the owner, or empty if this replica should serve the request
+     */
+    public <T> Optional<ResponseEntity<T>> redirect(long claimId, HttpServletRequest request) {
+        if (servesLocally(claimId, request)) {
+            return Optional.empty();
+        }
+        return Optional.of(redirectTo(ring.ownerOf(claimId), request));
+    }
+    
+    private boolean servesLocally(long claimId, HttpServletRequest request) {
+        return isLocal(claimId) || request.getHeader(FORWARDED_BY) != null;
+    }
+    
+    private static URI targetOf(String owner, HttpServletRequest request) {
+        String query = request.getQueryString();
+        return URI.create(owner + request.getRequestURI() + (query != null ? "?" + query : ""));
+    }
+    
+    private static <T> ResponseEntity<T> redirectTo(String owner, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(targetOf(owner, request)).build();
+    }
+    
+    private ResponseEntity<byte[]> forward(String owner, HttpServletRequest request, byte[] body) {
+        HttpRequest.Builder forwarded = HttpRequest.newBuilder(targetOf(owner, request))
+                .timeout(timeout)
+                .header(FORWARDED_BY, self)
+                .method(request.getMethod(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String header : FORWARDED_REQUEST_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                forwarded.header(header, value);
+            }
+        }
+        
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(forwarded.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Claim owner " + owner + " is unreachable", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while forwarding to the claim owner", ex);
+        }
+        
+        ResponseEntity.BodyBuilder relayed = ResponseEntity.status(response.statusCode());
+        for (String header : RELAYED_RESPONSE_HEADERS) {
+            response.headers().firstValue(header).ifPresent(value -> relayed.header(header, value));
+        }
+        return relayed.body(response.body().length == 0 ? null : response.body());
+    }
+    
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
@@ -0,0 +1,123 @@
+package com.insurance.claims.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable consistent-hash ring mapping claim IDs to the node that owns them. Each
+ * node is placed on the ring at {@code virtualNodes} points, and a key belongs to the
+ * first point at or after its hash. Adding or removing a node only moves the keys
+ * between its points and their predecessors - about 1/n of all keys - while the many
+ * points per node keep the shares even.
+ * <p>
+ * Points are kept in two parallel sorted arrays, so a lookup is one hash and a binary
+ * search with no allocation.
+ */
+public final class ConsistentHashRing {
+    
+    private final Set<String> nodes;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+    
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual nodes must be at least 1, got " + virtualNodes);
+        }
+        this.nodes = Set.copyOf(new LinkedHashSet<>(nodes));
+        this.virtualNodes = virtualNodes;
+        
+        int size = this.nodes.size() * virtualNodes;
+        long[] unsortedPoints = new long[size];
+        String[] unsortedOwners = new String[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (String node : this.nodes) {
+            long nodeHash = hash(node);
+            for (int v = 0; v < virtualNodes; v++) {
+                unsortedPoints[i] = mix(nodeHash + (v + 1) * 0x9E3779B97F4A7C15L);
+                unsortedOwners[i] = node;
+                order[i] = i;
+                i++;
+            }
+        }
+        // Ties (vanishingly rare) are broken by node name so every replica builds the same ring
+        Arrays.sort(order, (a, b) -> {
+            int byPoint = Long.compare(unsortedPoints[a], unsortedPoints[b]);
+            return byPoint != 0 ? byPoint : unsortedOwners[a].compareTo(unsortedOwners[b]);
+        });
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            points[j] = unsortedPoints[order[j]];
+            owners[j] = unsortedOwners[order[j]];
+        }
+    }
+    
+    /**
+     * @return the node that owns a claim ID
+     */
+    public String ownerOf(long claimId) {
+        long key = mix(claimId);
+        int index = Arrays.binarySearch(points, key);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == points.length) {
+                index = 0;
+            }
+        }
+        return owners[index];
+    }
+    
+    public boolean contains(String node) {
+        return nodes.contains(node);
+    }
+    
+    public Set<String> getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * @return a ring with one more node; only keys the new node takes over change owner
+     */
+    public ConsistentHashRing withNode(String node) {
+        Set<String> joined = new LinkedHashSet<>(nodes);
+        joined.add(node);
+        return new ConsistentHashRing(joined, virtualNodes);
+    }
+    
+    /**
+     * @return a ring without a node; only the keys it owned change owner
+     */
+    public ConsistentHashRing withoutNode(String node) {
+        Set<String> remaining = new LinkedHashSet<>(nodes);
+        remaining.remove(node);
+        return new ConsistentHashRing(remaining, virtualNodes);
+    }
+    
+    private static long hash(String node) {
+        // FNV-1a over the UTF-8 bytes, so every replica places a node at the same points
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : node.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+    
+    /** MurmurHash3 finalizer: spreads sequential IDs evenly over the ring */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -1,17 +1,63 @@
 package com.insurance.claims.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.claims.cluster.ClaimRouter;
+import com.insurance.claims.dto.BatchClaimResponse;
+import com.insurance.claims.dto.BatchClaimResponse.ItemResult;
+import com.insurance.claims.dto.ClaimPage;
 import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.dto.ClaimStats;
+import com.insurance.claims.dto.ClaimStatusUpdate;
+import com.insurance.claims.dto.CustomerClaimStats;
+import com.insurance.claims.dto.DescriptionSearchPage;
 import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.events.ClaimEventBroker;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.exception.GlobalExceptionHandler.ErrorResponse;
+import com.insurance.claims.json.ClaimJsonConfiguration;
+import com.insurance.claims.search.DescriptionQuery;
+import com.insurance.claims.service.ClaimExportService;
 import com.insurance.claims.service.ClaimService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @RestController
 @RequestMapping("/claims")
@@ -19,10 +65,33 @@ import java.util.Optional;
 public class ClaimController {
     
     private final ClaimService claimService;
+    private final ClaimExportService claimExportService;
+    private final ClaimEventBroker claimEventBroker;
+    private final ClaimRouter claimRouter;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final Validator validator;
+    private final int maxBatchSize;
+    private final ClaimResponseCache responseCache;
     
     @Autowired
-    public ClaimController(ClaimService claimService) {
+    public ClaimController(ClaimService claimService,
+                           ClaimExportService claimExportService,
+                           ClaimEventBroker claimEventBroker,
+                           ClaimRouter claimRouter,
+                           ObjectMapper objectMapper,
+                           Validator validator,
+                           @Value("${claims.batch.max-size:10000}") int maxBatchSize,
+                           @Value("${claims.response-cache.size:4096}") int responseCacheSize) {
         this.claimService = claimService;
+        this.claimExportService = claimExportService;
+        this.claimEventBroker = claimEventBroker;
+        this.claimRouter = claimRouter;
+        this.objectMapper = objectMapper;
+        this.cborMapper = ClaimJsonConfiguration.cborMapper(objectMapper);
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+        this.responseCache = new ClaimResponseCache(responseCacheSize);
     }
     
     /**
@@ -38,20 +107,278 @@ public class ClaimController {
     }
     
     /**
-     * Retrieves the status and details of a specific claim
+     * Submits a batch of claims given as a JSON array. Each item is validated on its
+     * own; valid items are created in a single bulk insert. The array is read one item
+     * at a time, so an oversized batch is rejected before the rest of it is read, and an
+     * item that does not bind to a claim request is reported as a failed item.
+     * 
+     * @param body the JSON request body
+     * @return ResponseEntity with per-item results; HTTP 201 if every item was created, otherwise HTTP 207
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchClaimResponse> submitClaimBatch(Reader body) throws IOException {
+        List<ClaimRequest> requests = new ArrayList<>();
+        List<ErrorResponse> parseErrors = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must be a JSON array");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                checkBatchSize(requests.size() + 1);
+                // Syntax errors leave no way to find the next item, so only binding errors are per item
+                JsonNode item = objectMapper.readTree(parser);
+                try {
+                    requests.add(objectMapper.treeToValue(item, ClaimRequest.class));
+                    parseErrors.add(null);
+                } catch (JsonProcessingException ex) {
+                    requests.add(null);
+                    parseErrors.add(malformedItem(ex));
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed batch: " + ex.getOriginalMessage());
+        }
+        return processBatch(requests, parseErrors.toArray(new ErrorResponse[0]));
+    }
+    
+    /**
+     * Submits a batch of claims as newline-delimited JSON, one claim request per line.
+     * Lines that cannot be parsed are reported as failed items without rejecting the batch.
+     * 
+     * @param body the NDJSON request body
+     * @return ResponseEntity with per-item results; HTTP 201 if every item was created, otherwise HTTP 207
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchClaimResponse> submitClaimBatchNdjson(Reader body) throws IOException {
+        List<ClaimRequest> requests = new ArrayList<>();
+        List<ErrorResponse> parseErrors = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(body);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            checkBatchSize(requests.size() + 1);
+            try {
+                requests.add(objectMapper.readValue(line, ClaimRequest.class));
+                parseErrors.add(null);
+            } catch (JsonProcessingException ex) {
+                requests.add(null);
+                parseErrors.add(malformedItem(ex));
+            }
+        }
+        return processBatch(requests, parseErrors.toArray(new ErrorResponse[0]));
+    }
+    
+    /**
+     * Retrieves the status and details of a specific claim. Responses carry a strong ETag
+     * and Last-Modified; a matching If-None-Match is answered with HTTP 304 and no body.
+     * Callers that prefer application/cbor in Accept get the same document as CBOR, with
+     * its own ETag. In cluster mode, requests for another replica's claim are sent to that replica.
      * 
      * @param id the ID of the claim to retrieve
-     * @return ResponseEntity with the claim if found (HTTP 200) or HTTP 404 if not found
+     * @param request the current request, for conditional headers
+     * @param servletRequest the current request, for routing to the claim's owner
+     * @return ResponseEntity with the claim JSON or CBOR if found (HTTP 200), HTTP 304 if unchanged
+     *         (null is returned once the 304 has been set up), or HTTP 404 if not found
      */
-    @GetMapping("/{id}")
-    public ResponseEntity<Claim> getClaimById(@PathVariable @NotNull Long id) {
-        Optional<Claim> claim = claimService.getClaimById(id);
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<byte[]> getClaimById(@PathVariable @NotNull Long id, WebRequest request,
+                                               HttpServletRequest servletRequest) throws JsonProcessingException {
+        Optional<ResponseEntity<byte[]>> routed = claimRouter.route(id, servletRequest, null);
+        if (routed.isPresent()) {
+            return routed.get();
+        }
         
-        if (claim.isPresent()) {
-            return ResponseEntity.ok(claim.get());
-        } else {
+        Optional<Claim> found = claimService.getClaimById(id);
+        if (found.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        
+        Claim claim = found.get();
+        boolean cbor = prefersCbor(servletRequest.getHeader(HttpHeaders.ACCEPT));
+        String etag = cbor ? cborETagOf(claim) : etagOf(claim);
+        long lastModified = claim.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        
+        byte[] body = responseCache.get(id, etag);
+        if (body == null) {
+            body = (cbor ? cborMapper : objectMapper).writeValueAsBytes(claim);
+            responseCache.put(id, etag, body);
+        }
+        return ResponseEntity.ok()
+                .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(body);
+    }
+    
+    /**
+     * Changes a claim's status if it is unchanged since the caller read it. The caller
+     * identifies that state with an If-Match header holding the claim's ETag, or with
+     * expectedVersion in the body. The transition must also be allowed by the claim
+     * status transition graph. In cluster mode, changes to another replica's claim are
+     * sent to that replica.
+     * 
+     * @param id the ID of the claim to update
+     * @param ifMatch optional ETag the claim must still have
+     * @param update the new status and optional expected version
+     * @param servletRequest the current request, for routing to the claim's owner
+     * @return ResponseEntity with the updated claim and its new ETag (HTTP 200), HTTP 404 if not found,
+     *         HTTP 412 if If-Match no longer matches, HTTP 409 if expectedVersion is stale or the
+     *         transition is not allowed, or HTTP 428 if neither precondition was sent
+     */
+    @PatchMapping(value = "/{id}/status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> changeClaimStatus(
+            @PathVariable @NotNull Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ClaimStatusUpdate update,
+            HttpServletRequest servletRequest) throws JsonProcessingException {
+        if (!claimRouter.isLocal(id)) {
+            Optional<ResponseEntity<byte[]>> routed =
+                    claimRouter.route(id, servletRequest, objectMapper.writeValueAsBytes(update));
+            if (routed.isPresent()) {
+                return routed.get();
+            }
+        }
+        
+        Integer expectedVersion = update.getExpectedVersion();
+        if (ifMatch == null && expectedVersion == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                    "Send an If-Match header or expectedVersion to change a claim's status");
+        }
+        Predicate<Claim> precondition = claim -> (ifMatch == null || matchesETag(ifMatch, claim))
+                && (expectedVersion == null || expectedVersion == claim.getVersion());
+        
+        Optional<Claim> updated;
+        try {
+            updated = claimService.changeClaimStatus(id, update.getStatus(), precondition);
+        } catch (ClaimVersionConflictException ex) {
+            if (ifMatch == null) {
+                throw ex;
+            }
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+        }
+        if (updated.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().eTag(etagOf(updated.get())).body(updated.get());
+    }
+    
+    /**
+     * Searches claims by customer, status and/or claim type with cursor-based pagination
+     * 
+     * @param customerId optional customer ID filter
+     * @param status optional claim status filter
+     * @param type optional claim type filter
+     * @param cursor the nextCursor returned by the previous page, if any
+     * @param limit the maximum number of claims per page
+     * @return ResponseEntity with a page of matching claims (HTTP 200)
+     */
+    @GetMapping
+    public ResponseEntity<ClaimPage> searchClaims(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) ClaimStatus status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        return ResponseEntity.ok(claimService.searchClaims(customerId, status, type, cursor, limit));
+    }
+    
+    /**
+     * Full-text search over claim descriptions. Every word of the query must occur in a
+     * matching description, and words in double quotes must occur as a phrase. Results
+     * are ranked by relevance and paged by offset, up to
+     * {@value ClaimService#MAX_DESCRIPTION_RESULTS} results in total.
+     * 
+     * @param q the query, e.g. {@code water damage "burst pipe"}
+     * @param limit the maximum number of claims per page
+     * @param offset the nextOffset returned by the previous page, if any
+     * @return ResponseEntity with a page of matching claims (HTTP 200); HTTP 400 if the query has no words or the page is beyond the result limit
+     */
+    @GetMapping("/search")
+    public ResponseEntity<DescriptionSearchPage> searchDescriptions(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int limit,
+            @RequestParam(defaultValue = "0") @Min(0) int offset) {
+        DescriptionQuery query = DescriptionQuery.parse(q);
+        if (query.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must contain at least one word");
+        }
+        if (offset + limit > ClaimService.MAX_DESCRIPTION_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Only the first " + ClaimService.MAX_DESCRIPTION_RESULTS + " results can be paged through");
+        }
+        return ResponseEntity.ok(claimService.searchDescriptions(query, offset, limit));
+    }
+    
+    /**
+     * Claim counts by status and by claim type. The counts are maintained as claims are
+     * written, so this is cheap enough for dashboards to poll.
+     * 
+     * @return ResponseEntity with the total and the counts per status and type (HTTP 200)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ClaimStats> getClaimStats() {
+        return ResponseEntity.ok(claimService.getClaimStats());
+    }
+    
+    /**
+     * Number of claims submitted by one customer
+     * 
+     * @param customerId the customer ID
+     * @return ResponseEntity with the customer's claim count, zero for an unknown customer (HTTP 200)
+     */
+    @GetMapping("/stats/customers/{customerId}")
+    public ResponseEntity<CustomerClaimStats> getCustomerClaimStats(@PathVariable long customerId) {
+        return ResponseEntity.ok(claimService.getCustomerClaimStats(customerId));
+    }
+    
+    /**
+     * Streams every claim matching the optional filters as NDJSON. Claims are written
+     * as the store is walked, so the export never holds the full result set in memory.
+     * 
+     * @param status optional claim status filter
+     * @param type optional claim type filter
+     * @param since optional lower bound (inclusive) on updatedAt, for incremental exports
+     * @return ResponseEntity streaming one JSON claim per line (HTTP 200)
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportClaims(
+            @RequestParam(required = false) ClaimStatus status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        StreamingResponseBody body = out -> claimExportService.exportClaims(out, status, type, since);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    /**
+     * Subscribes to claim status changes as Server-Sent Events. Each change is sent as a
+     * "status" event with the claim ID, customer ID, previous and new status, version and
+     * updatedAt. Without filters every change is delivered. In cluster mode, a subscription
+     * to another replica's claim is redirected to that replica, where its changes are made;
+     * other subscriptions see the changes made on this replica.
+     * 
+     * @param claimId optional claim ID filter
+     * @param customerId optional customer ID filter
+     * @param servletRequest the current request, for redirecting to the claim's owner
+     * @return the event stream; HTTP 307 to the claim's owner; HTTP 503 if the subscriber limit has been reached
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeToStatusChanges(
+            @RequestParam(required = false) Long claimId,
+            @RequestParam(required = false) Long customerId,
+            HttpServletRequest servletRequest) {
+        if (claimId != null) {
+            Optional<ResponseEntity<SseEmitter>> redirected = claimRouter.redirect(claimId, servletRequest);
+            if (redirected.isPresent()) {
+                return redirected.get();
+            }
+        }
+        return ResponseEntity.ok(claimEventBroker.subscribe(claimId, customerId));
     }
     
     /**
@@ -63,4 +390,123 @@ public class ClaimController {
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Claims API is running. Total claims: " + claimService.getClaimsCount());
     }
+    
+    private static String etagOf(Claim claim) {
+        // updatedAt keeps ETags unique across restarts, where versions are rebuilt from the journal
+        Instant updatedAt = claim.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return "\"" + claim.getVersion() + "-" + Long.toHexString(updatedAt.getEpochSecond())
+                + "." + Integer.toHexString(updatedAt.getNano()) + "\"";
+    }
+    
+    /**
+     * The CBOR representation has different bytes, so it needs its own strong ETag
+     */
+    private static String cborETagOf(Claim claim) {
+        String etag = etagOf(claim);
+        return etag.substring(0, etag.length() - 1) + "+cbor\"";
+    }
+    
+    private static boolean matchesETag(String ifMatch, Claim claim) {
+        String etag = etagOf(claim);
+        String cborETag = cborETagOf(claim);
+        for (String candidate : ifMatch.split(",")) {
+            String trimmed = candidate.trim();
+            // If-Match uses strong comparison, so weak tags never match
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals(cborETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Whether Accept ranks application/cbor above application/json. Each type takes the
+     * quality of the most specific range that includes it; on a tie the more specific
+     * match wins, and JSON wins otherwise.
+     */
+    static boolean prefersCbor(String accept) {
+        if (accept == null || !accept.contains("cbor")) {
+            return false;
+        }
+        List<MediaType> ranges;
+        try {
+            ranges = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        double[] cbor = preference(ranges, MediaType.APPLICATION_CBOR);
+        double[] json = preference(ranges, MediaType.APPLICATION_JSON);
+        return cbor[0] > 0 && (cbor[0] > json[0] || (cbor[0] == json[0] && cbor[1] > json[1]));
+    }
+    
+    /**
+     * @return the quality and specificity (0 for any type, 1 for type/*, 2 for type/subtype)
+     *         of the most specific range including the type, or zeros if none does
+     */
+    private static double[] preference(List<MediaType> ranges, MediaType type) {
+        double quality = 0;
+        int specificity = -1;
+        for (MediaType range : ranges) {
+            if (!range.includes(type)) {
+                continue;
+            }
+            int rangeSpecificity = range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+            if (rangeSpecificity > specificity) {
+                specificity = rangeSpecificity;
+                quality = range.getQualityValue();
+            }
+        }
+        return new double[] {quality, Math.max(specificity, 0)};
+    }
+    
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Batch exceeds the maximum of " + maxBatchSize + " claims");
+        }
+    }
+    
+    private static ErrorResponse malformedItem(JsonProcessingException ex) {
+        return new ErrorResponse(
+                "Malformed request",
+                ex.getOriginalMessage(),
+                LocalDateTime.now(),
+                null
+        );
+    }
+    
+    private ResponseEntity<BatchClaimResponse> processBatch(List<ClaimRequest> requests, ErrorResponse[] errors) {
+        List<ClaimRequest> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            ClaimRequest request = requests.get(i);
+            if (request == null) {
+                errors[i] = new ErrorResponse("Malformed request", "Batch item is null", LocalDateTime.now(), null);
+                continue;
+            }
+            Set<ConstraintViolation<ClaimRequest>> violations = validator.validate(request);
+            if (violations.isEmpty()) {
+                valid.add(request);
+            } else {
+                Map<String, String> fieldErrors = new LinkedHashMap<>();
+                violations.forEach(v -> fieldErrors.put(v.getPropertyPath().toString(), v.getMessage()));
+                errors[i] = ErrorResponse.validationFailed(fieldErrors);
+            }
+        }
+        
+        List<Claim> created = claimService.createClaims(valid);
+        
+        List<ItemResult> results = new ArrayList<>(requests.size());
+        int next = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(errors[i] != null
+                    ? ItemResult.rejected(i, errors[i])
+                    : ItemResult.created(i, created.get(next++)));
+        }
+        int rejected = requests.size() - created.size();
+        HttpStatus status = rejected == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(new BatchClaimResponse(created.size(), rejected, results));
+    }
 }
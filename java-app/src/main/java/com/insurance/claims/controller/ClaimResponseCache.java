@@ -0,0 +1,48 @@
+package com.insurance.claims.controller;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Serialized claim responses keyed by claim ID and ETag. The cache is direct-mapped:
+ * each ID hashes to one slot and a newer entry simply replaces the old one, so it is
+ * bounded, lock-free and needs no eviction bookkeeping.
+ */
+final class ClaimResponseCache {
+    
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    
+    /**
+     * @param size the number of slots, rounded up to a power of two; 0 disables the cache
+     */
+    ClaimResponseCache(int size) {
+        int capacity = size <= 0 ? 0 : Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+    
+    /**
+     * @return the cached body for this version of the claim, or null
+     */
+    byte[] get(long claimId, String etag) {
+        if (slots.length() == 0) {
+            return null;
+        }
+        Entry entry = slots.get(slot(claimId));
+        return entry != null && entry.claimId == claimId && entry.etag.equals(etag) ? entry.body : null;
+    }
+    
+    void put(long claimId, String etag, byte[] body) {
+        if (slots.length() > 0) {
+            slots.set(slot(claimId), new Entry(claimId, etag, body));
+        }
+    }
+    
+    private int slot(long claimId) {
+        long h = claimId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    private record Entry(long claimId, String etag, byte[] body) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.insurance.claims.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.insurance.claims.exception.GlobalExceptionHandler.ErrorResponse;
+import com.insurance.claims.model.Claim;
+
+import java.util.List;
+
+public class BatchClaimResponse {
+    
+    private final int accepted;
+    
+    private final int rejected;
+    
+    private final List<ItemResult> results;
+    
+    public BatchClaimResponse(int accepted, int rejected, List<ItemResult> results) {
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.results = results;
+    }
+    
+    public int getAccepted() {
+        return accepted;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public List<ItemResult> getResults() {
+        return results;
+    }
+    
+    /**
+     * Outcome for one item of the batch, in submission order
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        private final int index;
+        private final int status;
+        private final Claim claim;
+        private final ErrorResponse error;
+        
+        private ItemResult(int index, int status, Claim claim, ErrorResponse error) {
+            this.index = index;
+            this.status = status;
+            this.claim = claim;
+            this.error = error;
+        }
+        
+        public static ItemResult created(int index, Claim claim) {
+            return new ItemResult(index, 201, claim, null);
+        }
+        
+        public static ItemResult rejected(int index, ErrorResponse error) {
+            return new ItemResult(index, 400, null, error);
+        }
+        
+        public int getIndex() {
+            return index;
+        }
+        
+        public int getStatus() {
+            return status;
+        }
+        
+        public Claim getClaim() {
+            return claim;
+        }
+        
+        public ErrorResponse getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.insurance.claims.dto;
+
+import com.insurance.claims.model.Claim;
+
+import java.util.List;
+
+public class ClaimPage {
+    
+    private final List<Claim> claims;
+    
+    private final Long nextCursor;
+    
+    public ClaimPage(List<Claim> claims, Long nextCursor) {
+        this.claims = claims;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<Claim> getClaims() {
+        return claims;
+    }
+    
+    /**
+     * @return the cursor to pass for the next page, or null when this is the last page
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
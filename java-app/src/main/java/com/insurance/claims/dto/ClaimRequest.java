@@ -2,16 +2,20 @@ package com.insurance.claims.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 public class ClaimRequest {
     
     @NotNull(message = "Customer ID is required")
     private Long customerId;
     
+    // Limits match the write-behind claims table
     @NotBlank(message = "Claim type is required")
+    @Size(max = 255, message = "Claim type must be at most 255 characters")
     private String claimType;
     
     @NotBlank(message = "Description is required")
+    @Size(max = 4000, message = "Description must be at most 4000 characters")
     private String description;
     
     public ClaimRequest() {
@@ -0,0 +1,38 @@
+package com.insurance.claims.dto;
+
+import com.insurance.claims.model.ClaimStatus;
+
+import java.util.Map;
+
+public class ClaimStats {
+    
+    private final long total;
+    
+    private final Map<ClaimStatus, Long> byStatus;
+    
+    private final Map<String, Long> byType;
+    
+    public ClaimStats(long total, Map<ClaimStatus, Long> byStatus, Map<String, Long> byType) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byType = byType;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    /**
+     * @return the number of claims in each status, including statuses with none
+     */
+    public Map<ClaimStatus, Long> getByStatus() {
+        return byStatus;
+    }
+    
+    /**
+     * @return the number of claims of each claim type
+     */
+    public Map<String, Long> getByType() {
+        return byType;
+    }
+}
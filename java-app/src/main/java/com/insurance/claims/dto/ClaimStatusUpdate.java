@@ -0,0 +1,37 @@
+package com.insurance.claims.dto;
+
+import com.insurance.claims.model.ClaimStatus;
+import jakarta.validation.constraints.NotNull;
+
+public class ClaimStatusUpdate {
+    
+    @NotNull(message = "Status is required")
+    private ClaimStatus status;
+    
+    /** The version the caller last read; optional when an If-Match header is sent */
+    private Integer expectedVersion;
+    
+    public ClaimStatusUpdate() {
+    }
+    
+    public ClaimStatusUpdate(ClaimStatus status, Integer expectedVersion) {
+        this.status = status;
+        this.expectedVersion = expectedVersion;
+    }
+    
+    public ClaimStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ClaimStatus status) {
+        this.status = status;
+    }
+    
+    public Integer getExpectedVersion() {
+        return expectedVersion;
+    }
+    
+    public void setExpectedVersion(Integer expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+}
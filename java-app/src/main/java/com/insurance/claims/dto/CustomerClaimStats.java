@@ -0,0 +1,24 @@
+package com.insurance.claims.dto;
+
+public class CustomerClaimStats {
+    
+    private final long customerId;
+    
+    private final long total;
+    
+    public CustomerClaimStats(long customerId, long total) {
+        this.customerId = customerId;
+        this.total = total;
+    }
+    
+    public long getCustomerId() {
+        return customerId;
+    }
+    
+    /**
+     * @return the number of claims the customer has submitted
+     */
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,38 @@
+package com.insurance.claims.dto;
+
+import com.insurance.claims.model.Claim;
+
+import java.util.List;
+
+public class DescriptionSearchPage {
+    
+    private final List<Claim> claims;
+    
+    private final int totalMatches;
+    
+    private final Integer nextOffset;
+    
+    public DescriptionSearchPage(List<Claim> claims, int totalMatches, Integer nextOffset) {
+        this.claims = claims;
+        this.totalMatches = totalMatches;
+        this.nextOffset = nextOffset;
+    }
+    
+    /**
+     * @return the claims on this page, best match first
+     */
+    public List<Claim> getClaims() {
+        return claims;
+    }
+    
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+    
+    /**
+     * @return the offset to pass for the next page, or null when this is the last page
+     */
+    public Integer getNextOffset() {
+        return nextOffset;
+    }
+}
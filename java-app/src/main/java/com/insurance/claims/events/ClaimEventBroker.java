@@ -0,0 +1,290 @@
+package com.insurance.claims.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans claim status changes out to Server-Sent Event subscribers. Subscribers are
+ * indexed by claim ID or customer ID, so a change only touches the subscribers it
+ * matches. Idle subscribers hold an async request and a small queue, not a thread;
+ * events are written by a drain task on the task executor that runs only while a
+ * subscriber has queued events. A subscriber whose queue overflows is disconnected
+ * so a slow client never holds up writers or other subscribers; SSE clients then
+ * reconnect and re-read the claim.
+ * <p>
+ * Subscribers that were sent nothing during a heartbeat interval get an SSE comment,
+ * so load balancers do not drop quiet connections as idle, and a connection that has
+ * gone away fails its next write and gives up its subscriber slot instead of holding
+ * it until the emitter times out.
+ */
+@Component
+public class ClaimEventBroker implements ClaimEventPublisher {
+    
+    private static final Logger log = LoggerFactory.getLogger(ClaimEventBroker.class);
+    
+    private final Executor executor;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ConcurrentHashMap<Long, Set<Subscription>> byClaim = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Subscription>> byCustomer = new ConcurrentHashMap<>();
+    private final Set<Subscription> unfiltered = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ScheduledExecutorService heartbeats;
+    
+    @Autowired
+    public ClaimEventBroker(@Qualifier("applicationTaskExecutor") Executor executor,
+                            @Value("${claims.events.buffer-size:64}") int bufferSize,
+                            @Value("${claims.events.max-subscribers:50000}") int maxSubscribers,
+                            @Value("${claims.events.timeout:30m}") Duration timeout,
+                            @Value("${claims.events.heartbeat:30s}") Duration heartbeat) {
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "claims-event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = heartbeat.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, millis, millis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Opens a subscription to status changes
+     * 
+     * @param claimId only changes to this claim, or null
+     * @param customerId only changes to this customer's claims, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long claimId, Long customerId) {
+        return subscribe(new SseEmitter(timeoutMillis), claimId, customerId);
+    }
+    
+    SseEmitter subscribe(SseEmitter emitter, Long claimId, Long customerId) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event subscribers");
+        }
+        Subscription subscription = new Subscription(emitter, claimId, customerId);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        register(subscription);
+        return emitter;
+    }
+    
+    @Override
+    public void publish(ClaimStatusEvent event) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+        deliver(byClaim.get(event.claimId()), event);
+        if (event.customerId() != null) {
+            deliver(byCustomer.get(event.customerId()), event);
+        }
+        deliver(unfiltered, event);
+    }
+    
+    /**
+     * @return the number of open subscriptions
+     */
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+    
+    /**
+     * Queues a heartbeat for every subscriber that has been sent no event since the last tick
+     */
+    void heartbeat() {
+        try {
+            byClaim.values().forEach(this::heartbeatAll);
+            byCustomer.values().forEach(this::heartbeatAll);
+            heartbeatAll(unfiltered);
+        } catch (RuntimeException ex) {
+            log.warn("Claim event heartbeat failed", ex);
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        heartbeats.shutdownNow();
+        byClaim.values().forEach(this::completeAll);
+        byCustomer.values().forEach(this::completeAll);
+        completeAll(unfiltered);
+    }
+    
+    private void deliver(Set<Subscription> subscriptions, ClaimStatusEvent event) {
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+    
+    private void heartbeatAll(Set<Subscription> subscriptions) {
+        for (Subscription subscription : subscriptions) {
+            subscription.heartbeat();
+        }
+    }
+    
+    private void completeAll(Set<Subscription> subscriptions) {
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+            subscription.close();
+        }
+    }
+    
+    private void register(Subscription subscription) {
+        // Add inside compute so a concurrent unregister cannot drop the set we are adding to
+        if (subscription.claimId != null) {
+            byClaim.compute(subscription.claimId, (id, set) -> add(set, subscription));
+        } else if (subscription.customerId != null) {
+            byCustomer.compute(subscription.customerId, (id, set) -> add(set, subscription));
+        } else {
+            unfiltered.add(subscription);
+        }
+    }
+    
+    private static Set<Subscription> add(Set<Subscription> set, Subscription subscription) {
+        Set<Subscription> target = set != null ? set : ConcurrentHashMap.newKeySet();
+        target.add(subscription);
+        return target;
+    }
+    
+    private void unregister(Subscription subscription) {
+        if (subscription.claimId != null) {
+            byClaim.computeIfPresent(subscription.claimId, (id, set) -> set.remove(subscription) && set.isEmpty() ? null : set);
+        } else if (subscription.customerId != null) {
+            byCustomer.computeIfPresent(subscription.customerId, (id, set) -> set.remove(subscription) && set.isEmpty() ? null : set);
+        } else {
+            unfiltered.remove(subscription);
+        }
+    }
+    
+    private final class Subscription {
+        
+        final SseEmitter emitter;
+        final Long claimId;
+        final Long customerId;
+        final ArrayBlockingQueue<ClaimStatusEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        /** Whether an event was sent since the last heartbeat tick */
+        volatile boolean active;
+        
+        Subscription(SseEmitter emitter, Long claimId, Long customerId) {
+            this.emitter = emitter;
+            this.claimId = claimId;
+            this.customerId = customerId;
+        }
+        
+        boolean matches(ClaimStatusEvent event) {
+            return (claimId == null || claimId == event.claimId())
+                    && (customerId == null || customerId.equals(event.customerId()));
+        }
+        
+        void offer(ClaimStatusEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                log.debug("Disconnecting slow claim event subscriber after {} undelivered events", bufferSize);
+                emitter.complete();
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+        
+        void heartbeat() {
+            if (closed.get()) {
+                return;
+            }
+            if (active) {
+                active = false;
+                return;
+            }
+            heartbeatDue.set(true);
+            scheduleDrain();
+        }
+        
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+        
+        private void drain() {
+            while (true) {
+                if (heartbeatDue.getAndSet(false)) {
+                    if (!send(SseEmitter.event().comment("heartbeat"))) {
+                        return;
+                    }
+                    continue;
+                }
+                ClaimStatusEvent event = buffer.poll();
+                if (event == null) {
+                    draining.set(false);
+                    // Work queued after the poll but before the reset would otherwise be stranded
+                    if ((buffer.isEmpty() && !heartbeatDue.get()) || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (!send(SseEmitter.event()
+                        .name("status")
+                        .id(event.claimId() + "-" + event.version())
+                        .data(event, MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                active = true;
+            }
+        }
+        
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away; the emitter's error callback may not fire for every container
+                close();
+                return false;
+            }
+        }
+        
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                unregister(this);
+                subscribers.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.insurance.claims.events;
+
+/**
+ * Receives claim status changes from ClaimService once they are durable.
+ * Implementations must not block: publish is called on the request thread.
+ */
+public interface ClaimEventPublisher {
+    
+    /**
+     * Publisher used when nobody subscribes to claim events
+     */
+    ClaimEventPublisher NONE = event -> {
+    };
+    
+    void publish(ClaimStatusEvent event);
+}
@@ -0,0 +1,22 @@
+package com.insurance.claims.events;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A claim status change as pushed to subscribers
+ */
+public record ClaimStatusEvent(long claimId,
+                               Long customerId,
+                               ClaimStatus previousStatus,
+                               ClaimStatus status,
+                               int version,
+                               LocalDateTime updatedAt) {
+    
+    public static ClaimStatusEvent of(Claim claim, ClaimStatus previousStatus) {
+        return new ClaimStatusEvent(claim.getId(), claim.getCustomerId(), previousStatus,
+                claim.getStatus(), claim.getVersion(), claim.getUpdatedAt());
+    }
+}
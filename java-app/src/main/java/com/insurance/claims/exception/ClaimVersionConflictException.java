@@ -0,0 +1,27 @@
+package com.insurance.claims.exception;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thrown when a conditional status change finds that the claim has changed since the
+ * caller read it. Carries the current version so the caller can report it.
+ */
+public class ClaimVersionConflictException extends RuntimeException {
+    
+    private final int currentVersion;
+    private final LocalDateTime currentUpdatedAt;
+    
+    public ClaimVersionConflictException(long claimId, int currentVersion, LocalDateTime currentUpdatedAt) {
+        super("Claim " + claimId + " has been modified; current version is " + currentVersion);
+        this.currentVersion = currentVersion;
+        this.currentUpdatedAt = currentUpdatedAt;
+    }
+    
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+    
+    public LocalDateTime getCurrentUpdatedAt() {
+        return currentUpdatedAt;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
@@ -27,14 +28,7 @@ public class GlobalExceptionHandler {
             errors.put(fieldName, errorMessage);
         });
         
-        ErrorResponse errorResponse = new ErrorResponse(
-                "Validation failed",
-                "One or more fields have validation errors",
-                LocalDateTime.now(),
-                errors
-        );
-        
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest().body(ErrorResponse.validationFailed(errors));
     }
     
     /**
@@ -52,6 +46,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errorResponse);
     }
     
+    /**
+     * Handles status changes the claim status transition graph does not allow
+     */
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidStatusTransition(InvalidStatusTransitionException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Invalid status transition",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                null
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+    
+    /**
+     * Handles conditional updates that lost to a concurrent change
+     */
+    @ExceptionHandler(ClaimVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleClaimVersionConflict(ClaimVersionConflictException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "Version conflict",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                null
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+    
+    /**
+     * Handles exceptions that carry their own HTTP status
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.getReasonPhrase(),
+                ex.getReason(),
+                LocalDateTime.now(),
+                null
+        );
+        
+        return ResponseEntity.status(status).headers(ex.getHeaders()).body(errorResponse);
+    }
+    
     /**
      * Handles general exceptions
      */
@@ -83,6 +123,18 @@ public class GlobalExceptionHandler {
             this.validationErrors = validationErrors;
         }
         
+        /**
+         * Builds the response used for field validation failures
+         */
+        public static ErrorResponse validationFailed(Map<String, String> validationErrors) {
+            return new ErrorResponse(
+                    "Validation failed",
+                    "One or more fields have validation errors",
+                    LocalDateTime.now(),
+                    validationErrors
+            );
+        }
+        
         // Getters
         public String getError() {
             return error;
@@ -0,0 +1,13 @@
+package com.insurance.claims.exception;
+
+import com.insurance.claims.model.ClaimStatus;
+
+/**
+ * Thrown when a status change is not allowed by the claim status transition graph
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+    
+    public InvalidStatusTransitionException(long claimId, ClaimStatus from, ClaimStatus to) {
+        super("Claim " + claimId + " cannot move from " + from + " to " + to);
+    }
+}
@@ -0,0 +1,34 @@
+package com.insurance.claims.health;
+
+import com.insurance.claims.service.ClaimService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness of the claims store, part of the {@code /actuator/health/readiness} group.
+ * Reports DOWN until the claims have been restored and whenever the write-ahead log
+ * can no longer take writes, so Kubernetes stops routing traffic to the pod.
+ */
+@Component
+public class ClaimsReadinessHealthIndicator implements HealthIndicator {
+    
+    // Probes poll every few seconds; reuse the two possible results instead of building one per call
+    private static final Health READY = Health.up().build();
+    private static final Health NOT_READY = Health.down()
+            .withDetail("reason", "Claims are being restored or the write-ahead log is unavailable")
+            .build();
+    
+    private final ClaimService claimService;
+    
+    @Autowired
+    public ClaimsReadinessHealthIndicator(ClaimService claimService) {
+        this.claimService = claimService;
+    }
+    
+    @Override
+    public Health health() {
+        return claimService.isReady() ? READY : NOT_READY;
+    }
+}
@@ -0,0 +1,53 @@
+package com.insurance.claims.id;
+
+import com.insurance.claims.cluster.ClaimRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClaimIdConfiguration {
+    
+    private static final Logger log = LoggerFactory.getLogger(ClaimIdConfiguration.class);
+    
+    /**
+     * IDs 1, 2, 3, ..., the default; in cluster mode each replica keeps only the IDs it owns
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.id.generator", havingValue = "sequential", matchIfMissing = true)
+    public ClaimIdGenerator sequentialClaimIdGenerator(ClaimRouter claimRouter) {
+        return claimRouter.ownedIds(new SequentialClaimIdGenerator());
+    }
+    
+    /**
+     * Snowflake IDs, unique across replicas that each have their own {@code claims.id.node-id}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.id.generator", havingValue = "snowflake")
+    public ClaimIdGenerator snowflakeClaimIdGenerator(@Value("${claims.id.node-id:}") String nodeId,
+                                                      ClaimRouter claimRouter) {
+        long resolved = resolveNodeId(nodeId);
+        log.info("Generating claim IDs as node {}", resolved);
+        return claimRouter.ownedIds(new SnowflakeClaimIdGenerator(resolved));
+    }
+    
+    /**
+     * The node ID must be configured: nothing a pod can see about itself, such as its IP,
+     * is guaranteed to differ between replicas in 10 bits, and two replicas with the same
+     * node ID hand out the same IDs.
+     */
+    static long resolveNodeId(String nodeId) {
+        if (nodeId.isBlank()) {
+            throw new IllegalStateException("claims.id.generator=snowflake requires claims.id.node-id (0-"
+                    + SnowflakeClaimIdGenerator.MAX_NODE_ID + "), unique to each replica");
+        }
+        try {
+            return Long.parseLong(nodeId.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("claims.id.node-id is not a number: " + nodeId, ex);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.insurance.claims.id;
+
+/**
+ * Source of claim IDs. Implementations must be safe for concurrent use and never
+ * return 0, which the compact store reserves as its empty-slot marker.
+ */
+public interface ClaimIdGenerator {
+    
+    /**
+     * @return a new claim ID, greater than every ID this generator returned before
+     */
+    long nextId();
+    
+    /**
+     * Reserves IDs for a batch in one step, so a batch does not contend once per claim
+     * 
+     * @param count the number of IDs, at least 1
+     * @return increasing IDs, all greater than every ID this generator returned before
+     */
+    long[] nextIds(int count);
+    
+    /**
+     * Makes sure future IDs are greater than an ID that is already in use, e.g. the
+     * highest ID recovered from the write-ahead log
+     * 
+     * @param usedId an ID that must not be handed out again
+     */
+    void advancePast(long usedId);
+    
+    /**
+     * Restarts ID generation from scratch - used for testing
+     */
+    void reset();
+}
@@ -0,0 +1,36 @@
+package com.insurance.claims.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IDs 1, 2, 3, ... from a per-JVM counter. Only safe with a single replica.
+ */
+public class SequentialClaimIdGenerator implements ClaimIdGenerator {
+    
+    private final AtomicLong next = new AtomicLong(1);
+    
+    @Override
+    public long nextId() {
+        return next.getAndIncrement();
+    }
+    
+    @Override
+    public long[] nextIds(int count) {
+        long first = next.getAndAdd(count);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = first + i;
+        }
+        return ids;
+    }
+    
+    @Override
+    public void advancePast(long usedId) {
+        next.accumulateAndGet(usedId + 1, Math::max);
+    }
+    
+    @Override
+    public void reset() {
+        next.set(1);
+    }
+}
@@ -0,0 +1,105 @@
+package com.insurance.claims.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style IDs that are unique across replicas without coordination:
+ * 41 bits of milliseconds since 2024-01-01, a 10-bit node ID and a 12-bit sequence.
+ * <p>
+ * The millisecond and sequence live together in one AtomicLong and are advanced with
+ * a single compare-and-set, so generation is lock-free. When more than 4096 IDs are
+ * requested within a millisecond the sequence carries into the timestamp, letting the
+ * generator run ahead of the wall clock instead of spinning until the next tick; the
+ * clock catches up once the burst is over. A clock that steps backwards is handled
+ * the same way, so IDs from one node are always increasing. A batch reserves its whole
+ * block of sequence numbers with one compare-and-set.
+ */
+public class SnowflakeClaimIdGenerator implements ClaimIdGenerator {
+    
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private final long nodeId;
+    private final long nodeBits;
+    private final LongSupplier clock;
+    /** (milliseconds since the epoch << SEQUENCE_BITS) | sequence of the last ID handed out */
+    private final AtomicLong last = new AtomicLong();
+    
+    public SnowflakeClaimIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+    
+    SnowflakeClaimIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ", got " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+    
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long next = Math.max(now, previous + 1);
+            if (last.compareAndSet(previous, next)) {
+                return compose(next);
+            }
+        }
+    }
+    
+    @Override
+    public long[] nextIds(int count) {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long first;
+        while (true) {
+            long previous = last.get();
+            first = Math.max(now, previous + 1);
+            if (last.compareAndSet(previous, first + count - 1)) {
+                break;
+            }
+        }
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = compose(first + i);
+        }
+        return ids;
+    }
+    
+    @Override
+    public void advancePast(long usedId) {
+        if (nodeOf(usedId) != nodeId) {
+            // Another node's ID; its timestamp and sequence say nothing about ours
+            return;
+        }
+        long state = (usedId >>> (NODE_BITS + SEQUENCE_BITS)) << SEQUENCE_BITS | (usedId & SEQUENCE_MASK);
+        last.accumulateAndGet(state, Math::max);
+    }
+    
+    public long getNodeId() {
+        return nodeId;
+    }
+    
+    @Override
+    public void reset() {
+        last.set(0);
+    }
+    
+    /**
+     * @return the node ID encoded in a claim ID
+     */
+    public static long nodeOf(long claimId) {
+        return claimId >>> SEQUENCE_BITS & MAX_NODE_ID;
+    }
+    
+    private long compose(long state) {
+        return (state >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (state & SEQUENCE_MASK);
+    }
+}
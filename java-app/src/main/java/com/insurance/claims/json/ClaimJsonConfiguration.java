@@ -0,0 +1,53 @@
+package com.insurance.claims.json;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Jackson setup for the API payloads. Spring Boot registers every Module bean with
+ * the ObjectMapper it builds from {@code spring.jackson.*}.
+ */
+@Configuration
+public class ClaimJsonConfiguration {
+    
+    /**
+     * Property access through generated lambdas instead of reflection
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+    
+    /**
+     * ISO timestamps without DateTimeFormatter; registered after JavaTimeModule, so it takes precedence
+     */
+    @Bean
+    public Module isoLocalDateTimeModule() {
+        return new SimpleModule("IsoLocalDateTime").addSerializer(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE);
+    }
+    
+    /**
+     * application/cbor for service-to-service callers that send it in Accept, with the
+     * same configuration as JSON. Replaces the default CBOR converter, which Spring MVC
+     * builds without the {@code spring.jackson.*} settings.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(objectMapper));
+    }
+    
+    /**
+     * @return a CBOR mapper with the JSON mapper's configuration and modules
+     */
+    public static ObjectMapper cborMapper(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory());
+    }
+}
@@ -0,0 +1,123 @@
+package com.insurance.claims.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes LocalDateTime exactly as {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME}
+ * does (seconds always present, fraction without trailing zeros), but by filling a char
+ * array directly instead of going through the formatter's generic field printers. The
+ * "yyyy-MM-ddT" prefix is cached for the most recent date, which nearly every timestamp
+ * written by a live service shares.
+ * <p>
+ * Timestamps as numbers, {@code @JsonFormat} patterns and years outside 0000-9999 are
+ * left to the standard JavaTimeModule serializer.
+ */
+public final class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+    
+    public static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+    
+    /** "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn" */
+    private static final int MAX_LENGTH = 29;
+    private static final int DATE_PREFIX_LENGTH = 11;
+    
+    private record DatePrefix(int packedDate, char[] chars) {
+    }
+    
+    private volatile DatePrefix lastDate = new DatePrefix(-1, new char[DATE_PREFIX_LENGTH]);
+    
+    private IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+    
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        if (format != null && (format.hasPattern() || format.hasShape() || format.hasLocale() || format.hasTimeZone())) {
+            return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+        }
+        return this;
+    }
+    
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) || year < 0 || year > 9999) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        int length = render(value, buffer);
+        generator.writeString(buffer, 0, length);
+    }
+    
+    /**
+     * Renders a timestamp with a year between 0 and 9999
+     * 
+     * @return the number of chars written to the buffer, which must hold 29
+     */
+    int render(LocalDateTime value, char[] buffer) {
+        int packedDate = (value.getYear() << 9) | (value.getMonthValue() << 5) | value.getDayOfMonth();
+        DatePrefix date = lastDate;
+        if (date.packedDate() != packedDate) {
+            date = new DatePrefix(packedDate, datePrefix(value));
+            lastDate = date;
+        }
+        System.arraycopy(date.chars(), 0, buffer, 0, DATE_PREFIX_LENGTH);
+        
+        int position = DATE_PREFIX_LENGTH;
+        position = twoDigits(value.getHour(), buffer, position);
+        buffer[position++] = ':';
+        position = twoDigits(value.getMinute(), buffer, position);
+        buffer[position++] = ':';
+        position = twoDigits(value.getSecond(), buffer, position);
+        
+        int nano = value.getNano();
+        if (nano == 0) {
+            return position;
+        }
+        buffer[position++] = '.';
+        int digits = 9;
+        while (nano % 10 == 0) {
+            nano /= 10;
+            digits--;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + nano % 10);
+            nano /= 10;
+        }
+        return position + digits;
+    }
+    
+    private static char[] datePrefix(LocalDateTime value) {
+        char[] chars = new char[DATE_PREFIX_LENGTH];
+        int year = value.getYear();
+        chars[0] = (char) ('0' + year / 1000);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        chars[4] = '-';
+        twoDigits(value.getMonthValue(), chars, 5);
+        chars[7] = '-';
+        twoDigits(value.getDayOfMonth(), chars, 8);
+        chars[10] = 'T';
+        return chars;
+    }
+    
+    private static int twoDigits(int value, char[] buffer, int position) {
+        buffer[position] = (char) ('0' + value / 10);
+        buffer[position + 1] = (char) ('0' + value % 10);
+        return position + 2;
+    }
+}
@@ -0,0 +1,226 @@
+package com.insurance.claims.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.WriteBehindJournal;
+import com.insurance.claims.store.ClaimStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the claim operations in ClaimService. Every meter is registered up front
+ * (or once per claim type), so recording is a lookup and an atomic add with no allocation;
+ * callers pass durations measured with {@link System#nanoTime()} rather than Timer.Sample.
+ */
+@Component
+public class ClaimMetrics {
+    
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+    
+    /**
+     * Metrics used when no registry is configured; meters record nothing
+     */
+    public static final ClaimMetrics NONE = new ClaimMetrics(new CompositeMeterRegistry());
+    
+    /** Claim types beyond this many distinct values are counted as "other" to bound tag cardinality */
+    static final int MAX_CLAIM_TYPES = 100;
+    static final String OTHER_CLAIM_TYPE = "other";
+    
+    private final MeterRegistry registry;
+    private final Timer createTimer;
+    private final Timer createBatchTimer;
+    private final Timer getTimer;
+    private final Timer updateStatusTimer;
+    private final Timer searchDescriptionsTimer;
+    private final Counter lookupHits;
+    private final Counter lookupMisses;
+    private final Counter[][] transitions;
+    private final ConcurrentHashMap<String, Counter> claimTypes = new ConcurrentHashMap<>();
+    private final Counter otherClaimTypes;
+    private final Timer writeBehindFlushTimer;
+    private final Counter writeBehindFlushedClaims;
+    private final Counter writeBehindFailures;
+    private final Counter writeBehindRejected;
+    private final Timer cacheLoadHitTimer;
+    private final Timer cacheLoadMissTimer;
+    
+    @Autowired
+    public ClaimMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.createTimer = operationTimer("create");
+        this.createBatchTimer = operationTimer("createBatch");
+        this.getTimer = operationTimer("get");
+        this.updateStatusTimer = operationTimer("updateStatus");
+        this.searchDescriptionsTimer = operationTimer("searchDescriptions");
+        this.lookupHits = lookupCounter("hit");
+        this.lookupMisses = lookupCounter("miss");
+        this.transitions = new Counter[STATUSES.length][STATUSES.length];
+        for (ClaimStatus from : STATUSES) {
+            for (ClaimStatus to : STATUSES) {
+                transitions[from.ordinal()][to.ordinal()] = Counter.builder("claims.status.transitions")
+                        .description("Claim status changes")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(registry);
+            }
+        }
+        this.otherClaimTypes = claimTypeCounter(OTHER_CLAIM_TYPE);
+        this.writeBehindFlushTimer = Timer.builder("claims.writebehind.flush")
+                .description("Time to write one batch to the backing store")
+                .register(registry);
+        this.writeBehindFlushedClaims = Counter.builder("claims.writebehind.flushed")
+                .description("Claims written to the backing store")
+                .register(registry);
+        this.writeBehindFailures = Counter.builder("claims.writebehind.failures")
+                .description("Failed writes to the backing store")
+                .register(registry);
+        this.writeBehindRejected = Counter.builder("claims.writebehind.rejected")
+                .description("Claims the backing store rejected and that were set aside")
+                .register(registry);
+        this.cacheLoadHitTimer = cacheLoadTimer("found");
+        this.cacheLoadMissTimer = cacheLoadTimer("absent");
+    }
+    
+    /**
+     * Exposes the number of stored claims as a gauge
+     *
+     * @param claimStore the store to report on
+     */
+    public void bindStoreSize(ClaimStore claimStore) {
+        Gauge.builder("claims.store.size", claimStore, ClaimStore::size)
+                .description("Number of claims in the store")
+                .register(registry);
+    }
+    
+    /**
+     * Exposes the write-behind queue depth and the age of its oldest unwritten change
+     *
+     * @param journal the write-behind journal to report on
+     */
+    public void bindWriteBehind(WriteBehindJournal journal) {
+        Gauge.builder("claims.writebehind.queue.depth", journal, WriteBehindJournal::getPendingCount)
+                .description("Claims with changes not yet written to the backing store")
+                .register(registry);
+        Gauge.builder("claims.writebehind.flush.lag", journal, j -> j.getFlushLag().toNanos() / 1e9)
+                .description("Age of the oldest change not yet written to the backing store")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+    
+    /**
+     * Exposes the claim cache's size, hits, misses and evictions (as {@code cache.*}
+     * meters tagged {@code cache=claims}) and its hit ratio
+     *
+     * @param cache the cache of resident claims
+     */
+    public void bindClaimCache(Cache<Long, Claim> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, "claims");
+        Gauge.builder("claims.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of claim lookups served from memory since startup")
+                .register(registry);
+    }
+    
+    public void recordCreate(String claimType, long nanos) {
+        createTimer.record(nanos, TimeUnit.NANOSECONDS);
+        claimType(claimType).increment();
+    }
+    
+    public void recordCreateBatch(long nanos) {
+        createBatchTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordClaimType(String claimType) {
+        claimType(claimType).increment();
+    }
+    
+    public void recordGet(boolean found, long nanos) {
+        getTimer.record(nanos, TimeUnit.NANOSECONDS);
+        (found ? lookupHits : lookupMisses).increment();
+    }
+    
+    public void recordUpdateStatus(long nanos) {
+        updateStatusTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordDescriptionSearch(long nanos) {
+        searchDescriptionsTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordWriteBehindFlush(int claims, long nanos) {
+        writeBehindFlushTimer.record(nanos, TimeUnit.NANOSECONDS);
+        writeBehindFlushedClaims.increment(claims);
+    }
+    
+    public void recordWriteBehindFailure() {
+        writeBehindFailures.increment();
+    }
+    
+    public void recordWriteBehindRejected() {
+        writeBehindRejected.increment();
+    }
+    
+    public void recordClaimCacheLoad(boolean found, long nanos) {
+        (found ? cacheLoadHitTimer : cacheLoadMissTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordTransition(ClaimStatus from, ClaimStatus to) {
+        transitions[from.ordinal()][to.ordinal()].increment();
+    }
+    
+    private Counter claimType(String claimType) {
+        Counter counter = claimTypes.get(claimType);
+        if (counter != null) {
+            return counter;
+        }
+        if (claimTypes.size() >= MAX_CLAIM_TYPES) {
+            return otherClaimTypes;
+        }
+        return claimTypes.computeIfAbsent(claimType, this::claimTypeCounter);
+    }
+    
+    private Timer operationTimer(String operation) {
+        return Timer.builder("claims.operations")
+                .description("Latency of claim service operations")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                // In-memory operations complete in microseconds; the default range starts at 1ms
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+    
+    private Timer cacheLoadTimer(String result) {
+        return Timer.builder("claims.cache.load")
+                .description("Time to load a claim that was not in memory, by whether it exists")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(registry);
+    }
+    
+    private Counter lookupCounter(String result) {
+        return Counter.builder("claims.lookups")
+                .description("Claim lookups by ID, by whether the claim was found")
+                .tag("result", result)
+                .register(registry);
+    }
+    
+    private Counter claimTypeCounter(String claimType) {
+        return Counter.builder("claims.created")
+                .description("Claims created, by claim type")
+                .tag("type", claimType)
+                .register(registry);
+    }
+}
@@ -1,98 +1,129 @@
 package com.insurance.claims.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
-public class Claim {
+/**
+ * Immutable snapshot of a claim. A status change produces a new Claim with
+ * {@link #withStatus}, so a claim that has been handed to a reader (a response being
+ * serialized, an event, a journal entry) never changes underneath it.
+ * <p>
+ * Equality is by ID, so two snapshots of one claim are equal.
+ */
+public final class Claim {
     
-    private Long id;
+    private final Long id;
     
     @NotNull(message = "Customer ID is required")
-    private Long customerId;
+    private final Long customerId;
     
     @NotBlank(message = "Claim type is required")
-    private String claimType;
+    private final String claimType;
     
     @NotBlank(message = "Description is required")
-    private String description;
+    private final String description;
     
-    private ClaimStatus status;
+    private final ClaimStatus status;
     
-    private LocalDateTime createdAt;
+    private final LocalDateTime createdAt;
     
-    private LocalDateTime updatedAt;
+    private final LocalDateTime updatedAt;
     
-    public Claim() {
-        this.status = ClaimStatus.SUBMITTED;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-    }
+    /** Incremented on every status change; with updatedAt it identifies a representation for ETags */
+    private final int version;
     
+    /**
+     * Creates a submitted claim without an ID, created and updated now
+     */
     public Claim(Long customerId, String claimType, String description) {
-        this();
+        this(null, customerId, claimType, description);
+    }
+    
+    /**
+     * Creates a submitted claim, created and updated now
+     */
+    public Claim(Long id, Long customerId, String claimType, String description) {
+        this(id, customerId, claimType, description, LocalDateTime.now());
+    }
+    
+    private Claim(Long id, Long customerId, String claimType, String description, LocalDateTime now) {
+        this(id, customerId, claimType, description, ClaimStatus.SUBMITTED, now, now, 0);
+    }
+    
+    @JsonCreator
+    public Claim(@JsonProperty("id") Long id,
+                 @JsonProperty("customerId") Long customerId,
+                 @JsonProperty("claimType") String claimType,
+                 @JsonProperty("description") String description,
+                 @JsonProperty("status") ClaimStatus status,
+                 @JsonProperty("createdAt") LocalDateTime createdAt,
+                 @JsonProperty("updatedAt") LocalDateTime updatedAt,
+                 @JsonProperty("version") int version) {
+        this.id = id;
         this.customerId = customerId;
         this.claimType = claimType;
         this.description = description;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
     }
     
-    // Getters and Setters
-    public Long getId() {
-        return id;
+    /**
+     * @return this claim under the given ID
+     */
+    public Claim withId(Long id) {
+        return new Claim(id, customerId, claimType, description, status, createdAt, updatedAt, version);
     }
     
-    public void setId(Long id) {
-        this.id = id;
+    /**
+     * @return this claim after a status change at the given time, with the next version
+     */
+    public Claim withStatus(ClaimStatus status, LocalDateTime updatedAt) {
+        return withStatus(status, updatedAt, version + 1);
     }
     
-    public Long getCustomerId() {
-        return customerId;
+    /**
+     * @return this claim after a status change that gave it the given version, as when replaying a journal
+     */
+    public Claim withStatus(ClaimStatus status, LocalDateTime updatedAt, int version) {
+        return new Claim(id, customerId, claimType, description, status, createdAt, updatedAt, version);
     }
     
-    public void setCustomerId(Long customerId) {
-        this.customerId = customerId;
+    public Long getId() {
+        return id;
     }
     
-    public String getClaimType() {
-        return claimType;
+    public Long getCustomerId() {
+        return customerId;
     }
     
-    public void setClaimType(String claimType) {
-        this.claimType = claimType;
+    public String getClaimType() {
+        return claimType;
     }
     
     public String getDescription() {
         return description;
     }
     
-    public void setDescription(String description) {
-        this.description = description;
-    }
-    
     public ClaimStatus getStatus() {
         return status;
     }
     
-    public void setStatus(ClaimStatus status) {
-        this.status = status;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
     
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
-    }
-    
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
     
-    public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
+    public int getVersion() {
+        return version;
     }
     
     @Override
@@ -118,6 +149,7 @@ public class Claim {
                 ", status=" + status +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
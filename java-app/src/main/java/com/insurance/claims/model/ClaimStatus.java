@@ -1,5 +1,8 @@
 package com.insurance.claims.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ClaimStatus {
     SUBMITTED("Submitted"),
     UNDER_REVIEW("Under Review"),
@@ -7,7 +10,17 @@ public enum ClaimStatus {
     DENIED("Denied"),
     CLOSED("Closed");
     
+    static {
+        SUBMITTED.next = EnumSet.of(UNDER_REVIEW, CLOSED);
+        UNDER_REVIEW.next = EnumSet.of(APPROVED, DENIED, CLOSED);
+        APPROVED.next = EnumSet.of(CLOSED);
+        // A denial can be appealed, which sends the claim back for review
+        DENIED.next = EnumSet.of(UNDER_REVIEW, CLOSED);
+        CLOSED.next = EnumSet.noneOf(ClaimStatus.class);
+    }
+    
     private final String displayName;
+    private Set<ClaimStatus> next;
     
     ClaimStatus(String displayName) {
         this.displayName = displayName;
@@ -16,4 +29,12 @@ public enum ClaimStatus {
     public String getDisplayName() {
         return displayName;
     }
+    
+    /**
+     * @param target the status to move to
+     * @return true if a claim in this status may move to the target status
+     */
+    public boolean canTransitionTo(ClaimStatus target) {
+        return next.contains(target);
+    }
 }
@@ -0,0 +1,52 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.Claim;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Durable store of the current state of every claim, written behind the in-memory
+ * store by {@link WriteBehindJournal}. Only the journal's flusher writes, one batch
+ * at a time, but loads of single claims can run concurrently with it. Writing a claim
+ * that is already stored, as a retried insert does, must overwrite it rather than fail.
+ */
+public interface ClaimBackingStore extends Closeable {
+    
+    /**
+     * @return the highest stored claim ID, or 0 if the store is empty
+     * @throws IOException if the store cannot be read
+     */
+    long highestId() throws IOException;
+    
+    /**
+     * Reads one claim, for claims that are not held in memory
+     * 
+     * @param claimId the ID of the claim
+     * @return the stored claim, or empty if there is none
+     * @throws IOException if the store cannot be read
+     */
+    Optional<Claim> load(long claimId) throws IOException;
+    
+    /**
+     * Streams every stored claim without holding them all in memory
+     * 
+     * @param consumer receives each claim
+     * @throws IOException if the store cannot be read
+     */
+    void loadAll(Consumer<Claim> consumer) throws IOException;
+    
+    /**
+     * Writes a batch atomically: either every claim is stored or none is
+     * 
+     * @param inserts claims not yet in the store
+     * @param updates claims already in the store, with their current status and updatedAt
+     * @throws RejectedClaimException if the batch is a single claim that the store will never accept
+     * @throws IOException if the batch could not be written; it can be retried as a whole, or one
+     *         claim at a time to find a claim the store rejects
+     */
+    void write(List<Claim> inserts, List<Claim> updates) throws IOException;
+}
@@ -0,0 +1,124 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of claims shared by the persistence formats.
+ * Timestamps are stored as UTC epoch nanos and the status as its ordinal. The version
+ * is kept so that an ETag or expected version read before a restart still only matches
+ * the state it was read from.
+ */
+final class ClaimCodec {
+    
+    static final long NULL_LONG = Long.MIN_VALUE;
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+    
+    private ClaimCodec() {
+    }
+    
+    /**
+     * @return the number of bytes {@link #writeClaim} will produce for the given strings
+     */
+    static int claimSize(byte[] claimType, byte[] description) {
+        return 8 + 8 + 1 + 8 + 8 + 4 + 4 + lengthOf(claimType) + 4 + lengthOf(description);
+    }
+    
+    static void writeClaim(ByteBuffer buffer, Claim claim, byte[] claimType, byte[] description) {
+        buffer.putLong(claim.getId());
+        buffer.putLong(claim.getCustomerId() == null ? NULL_LONG : claim.getCustomerId());
+        buffer.put(statusCode(claim.getStatus()));
+        buffer.putLong(toEpochNanos(claim.getCreatedAt()));
+        buffer.putLong(toEpochNanos(claim.getUpdatedAt()));
+        buffer.putInt(claim.getVersion());
+        writeBytes(buffer, claimType);
+        writeBytes(buffer, description);
+    }
+    
+    static Claim readClaim(ByteBuffer buffer) {
+        return readClaim(buffer, true);
+    }
+    
+    /**
+     * Reads a claim written before versions were recorded; its version is 0
+     */
+    static Claim readUnversionedClaim(ByteBuffer buffer) {
+        return readClaim(buffer, false);
+    }
+    
+    private static Claim readClaim(ByteBuffer buffer, boolean versioned) {
+        long id = buffer.getLong();
+        long customerId = buffer.getLong();
+        ClaimStatus status = status(buffer.get());
+        LocalDateTime createdAt = fromEpochNanos(buffer.getLong());
+        LocalDateTime updatedAt = fromEpochNanos(buffer.getLong());
+        int version = versioned ? buffer.getInt() : 0;
+        String claimType = readString(buffer);
+        String description = readString(buffer);
+        return new Claim(id, customerId == NULL_LONG ? null : customerId, claimType, description,
+                status, createdAt, updatedAt, version);
+    }
+    
+    static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    static byte statusCode(ClaimStatus status) {
+        return status == null ? -1 : (byte) status.ordinal();
+    }
+    
+    static ClaimStatus status(byte code) {
+        return code < 0 ? null : STATUSES[code];
+    }
+    
+    static long toEpochNanos(LocalDateTime time) {
+        if (time == null) {
+            return NULL_LONG;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+    
+    static LocalDateTime fromEpochNanos(long nanos) {
+        if (nanos == NULL_LONG) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+    
+    private static int lengthOf(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+    
+    private static void writeBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalStateException("String length " + length + " exceeds record");
+        }
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
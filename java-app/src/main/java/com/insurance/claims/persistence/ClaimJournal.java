@@ -0,0 +1,136 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Durable record of claim changes, written by ClaimService alongside the in-memory store.
+ * Appends return a position; callers that need durability wait for it with
+ * {@link #awaitDurable(long)} outside of any claim lock.
+ */
+public interface ClaimJournal extends Closeable {
+    
+    /**
+     * Journal used when persistence is disabled; nothing is recorded
+     */
+    ClaimJournal NONE = new ClaimJournal() {
+        @Override
+        public boolean isDurable() {
+            return false;
+        }
+        
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+        
+        @Override
+        public void replay(Replayer replayer) {
+        }
+        
+        @Override
+        public long appendCreate(Claim claim) {
+            return 0;
+        }
+        
+        @Override
+        public long appendStatusChange(Claim claim) {
+            return 0;
+        }
+        
+        @Override
+        public void awaitDurable(long position) {
+        }
+        
+        @Override
+        public void close() {
+        }
+    };
+    
+    /**
+     * @return true if this journal survives restarts, in which case ClaimService
+     *         restores its state from it instead of seeding sample claims
+     */
+    boolean isDurable();
+    
+    /**
+     * @return true once the journal has been replayed and while appends can succeed
+     */
+    boolean isAvailable();
+    
+    /**
+     * Replays every recorded change in order. Must be called once, before the first append.
+     * 
+     * @param replayer receives the recorded changes
+     * @throws IOException if the journal cannot be read
+     */
+    void replay(Replayer replayer) throws IOException;
+    
+    /**
+     * Records a newly created claim
+     * 
+     * @param claim the created claim
+     * @return the position to pass to {@link #awaitDurable(long)}
+     */
+    long appendCreate(Claim claim);
+    
+    /**
+     * Records the current status and updatedAt of a claim. Must be called while holding
+     * the claim's update lock so changes to one claim are journaled in order.
+     * 
+     * @param claim the claim after its status changed
+     * @return the position to pass to {@link #awaitDurable(long)}
+     */
+    long appendStatusChange(Claim claim);
+    
+    /**
+     * Runs a change that appends to this journal and then applies the same change to the
+     * store. Journals that cut their log while writers continue hold the cut back until
+     * the changes in progress have been applied, so a record that lands before the cut
+     * is always in a snapshot taken after it.
+     * 
+     * @param change appends and applies the change
+     * @return the change's result
+     */
+    default <T> T recordChange(Supplier<T> change) {
+        return change.get();
+    }
+    
+    /**
+     * Blocks until everything up to the given position is as durable as the configured
+     * fsync policy promises
+     * 
+     * @param position a position returned by one of the append methods
+     */
+    void awaitDurable(long position);
+    
+    /**
+     * Callback for {@link #replay(Replayer)}
+     */
+    interface Replayer {
+        
+        /** Version passed for status changes recorded without one: the claim's next version */
+        int NEXT_VERSION = -1;
+        
+        void onCreate(Claim claim);
+        
+        /**
+         * @param version the claim's version after the change, or {@link #NEXT_VERSION}
+         */
+        void onStatusChange(long claimId, ClaimStatus status, LocalDateTime updatedAt, int version);
+        
+        /**
+         * Called before any claims are replayed by journals that know the highest recorded
+         * claim ID up front, such as ones that keep loading after {@link #replay} returns
+         * 
+         * @param claimId the highest claim ID in the journal
+         */
+        default void onHighestId(long claimId) {
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.store.ClaimStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped snapshot of every claim in the store.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * header (32 bytes): int magic | int version | long walPosition | long claimCount | long dataEnd
+ * records:           int length | claim (see ClaimCodec)
+ * </pre>
+ * Version 1 files, written before claim versions were recorded, are still read.
+ * The header is written last and the file is moved into place atomically, so a
+ * snapshot file that exists is always complete. {@code walPosition} is the log
+ * position the snapshot was started at; replaying the log from there on top of
+ * the snapshot restores the exact state even though writers kept running while
+ * the snapshot was taken, because every record is an idempotent redo of the
+ * claim's latest fields.
+ */
+final class ClaimSnapshot {
+    
+    static final int MAGIC = 0x434C534E;
+    static final int VERSION = 2;
+    private static final int UNVERSIONED_CLAIMS = 1;
+    static final int HEADER_SIZE = 32;
+    private static final long MAP_CHUNK = 64L << 20;
+    
+    private ClaimSnapshot() {
+    }
+    
+    /**
+     * Writes every claim in the store to the snapshot file, replacing any previous one
+     * 
+     * @param file the snapshot file
+     * @param walPosition the log position the snapshot covers up to
+     * @param store the store to copy
+     * @return the number of claims written
+     */
+    static long write(Path file, long walPosition, ClaimStore store) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long count;
+        long dataEnd;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedWriter writer = new MappedWriter(channel, HEADER_SIZE);
+            try {
+                store.forEach(writer::write);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            dataEnd = writer.finish();
+            count = writer.count;
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(walPosition).putLong(count).putLong(dataEnd).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.truncate(dataEnd);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+    
+    /**
+     * Loads a snapshot, passing every claim to the replayer
+     * 
+     * @param file the snapshot file
+     * @param replayer receives each claim through {@link ClaimJournal.Replayer#onCreate}
+     * @return the log position the snapshot covers up to, or -1 if there is no snapshot
+     */
+    static long read(Path file, ClaimJournal.Replayer replayer) throws IOException {
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || (version != VERSION && version != UNVERSIONED_CLAIMS)) {
+                throw new IOException("Unrecognized claim snapshot format in " + file);
+            }
+            long walPosition = header.getLong();
+            long count = header.getLong();
+            long dataEnd = header.getLong();
+            
+            long regionStart = HEADER_SIZE;
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                    Math.min(dataEnd - regionStart, MAP_CHUNK));
+            for (long i = 0; i < count; i++) {
+                if (region.remaining() < 4 || region.remaining() < 4 + region.getInt(region.position())) {
+                    // Next record crosses the window: remap starting at the record
+                    regionStart += region.position();
+                    region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart,
+                            Math.min(dataEnd - regionStart, MAP_CHUNK));
+                    int length = region.getInt(0);
+                    if (region.remaining() < 4 + length) {
+                        region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, 4L + length);
+                    }
+                }
+                int length = region.getInt();
+                int end = region.position() + length;
+                replayer.onCreate(version == VERSION ? ClaimCodec.readClaim(region) : ClaimCodec.readUnversionedClaim(region));
+                region.position(end);
+            }
+            return walPosition;
+        }
+    }
+    
+    /**
+     * Sequential writer over a file mapped in fixed-size windows
+     */
+    private static final class MappedWriter {
+        
+        private final FileChannel channel;
+        private MappedByteBuffer region;
+        private long regionStart;
+        long count;
+        
+        MappedWriter(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            map(start, MAP_CHUNK);
+        }
+        
+        void write(Claim claim) {
+            byte[] claimType = ClaimCodec.utf8(claim.getClaimType());
+            byte[] description = ClaimCodec.utf8(claim.getDescription());
+            int length = ClaimCodec.claimSize(claimType, description);
+            try {
+                if (region.remaining() < 4 + length) {
+                    region.force();
+                    map(regionStart + region.position(), Math.max(MAP_CHUNK, 4L + length));
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            region.putInt(length);
+            ClaimCodec.writeClaim(region, claim, claimType, description);
+            count++;
+        }
+        
+        long finish() {
+            region.force();
+            return regionStart + region.position();
+        }
+        
+        private void map(long start, long size) throws IOException {
+            regionStart = start;
+            region = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        }
+    }
+}
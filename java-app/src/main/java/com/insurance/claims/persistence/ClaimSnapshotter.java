@@ -0,0 +1,88 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.store.ClaimStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically snapshots the claim store and compacts the write-ahead log.
+ * <p>
+ * Each run rolls the log to a new segment, writes every claim to the snapshot
+ * file while writers continue, then deletes the segments the snapshot covers.
+ * Startup then loads the snapshot and replays only the segments written after it.
+ */
+public class ClaimSnapshotter implements Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ClaimSnapshotter.class);
+    
+    private final WriteAheadLog writeAheadLog;
+    private final ClaimStore claimStore;
+    private final long minLogBytes;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private long lastSnapshotPosition = -1;
+    
+    public ClaimSnapshotter(WriteAheadLog writeAheadLog, ClaimStore claimStore, Duration interval, long minLogBytes) {
+        this.writeAheadLog = writeAheadLog;
+        this.claimStore = claimStore;
+        this.minLogBytes = minLogBytes;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "claims-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotIfDue, millis, millis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Takes a snapshot if at least the configured number of log bytes were written since the last one
+     */
+    public void snapshotIfDue() {
+        try {
+            if (writeAheadLog.isRecovered() && writeAheadLog.getPosition() - Math.max(lastSnapshotPosition, 0) >= minLogBytes) {
+                snapshot();
+            }
+        } catch (Exception ex) {
+            log.error("Claim snapshot failed; the write-ahead log is kept intact", ex);
+        }
+    }
+    
+    /**
+     * Takes a snapshot now and deletes the log segments it covers
+     * 
+     * @return the number of claims written
+     */
+    public long snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long started = System.nanoTime();
+            long position = writeAheadLog.roll();
+            long claims = ClaimSnapshot.write(writeAheadLog.getSnapshotFile(), position, claimStore);
+            int deleted = writeAheadLog.deleteSegmentsBefore(position);
+            lastSnapshotPosition = position;
+            log.info("Snapshot of {} claims at log position {} written in {} ms; {} log segments removed",
+                    claims, position, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), deleted);
+            return claims;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+    
+    /**
+     * Stops the schedule and takes a final snapshot so the next start has no log to replay
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        snapshotIfDue();
+    }
+}
@@ -0,0 +1,191 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Claims table behind the write-behind journal, in any database with a JDBC driver
+ * on the classpath (H2 is bundled). Uses only standard SQL: batches are a batched MERGE
+ * and a batched UPDATE in one transaction. The MERGE makes inserts idempotent, so a
+ * batch that committed but whose acknowledgement was lost can be written again.
+ */
+public class JdbcClaimBackingStore implements ClaimBackingStore {
+    
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS claims (
+                id BIGINT PRIMARY KEY,
+                customer_id BIGINT NOT NULL,
+                claim_type VARCHAR(255) NOT NULL,
+                description VARCHAR(4000) NOT NULL,
+                status VARCHAR(32) NOT NULL,
+                created_at TIMESTAMP(9) NOT NULL,
+                updated_at TIMESTAMP(9) NOT NULL,
+                version INT NOT NULL
+            )""";
+    private static final String COLUMNS = "id, customer_id, claim_type, description, status, created_at, updated_at, version";
+    // Strings are cast without a length: CAST to VARCHAR(n) truncates, where the column rejects an over-long value
+    private static final String INSERT = """
+            MERGE INTO claims c
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR),
+                           CAST(? AS VARCHAR), CAST(? AS TIMESTAMP(9)), CAST(? AS TIMESTAMP(9)), CAST(? AS INT)))
+                AS v (id, customer_id, claim_type, description, status, created_at, updated_at, version)
+            ON c.id = v.id
+            WHEN MATCHED THEN UPDATE SET status = v.status, updated_at = v.updated_at, version = v.version
+            WHEN NOT MATCHED THEN INSERT (%s)
+                VALUES (v.id, v.customer_id, v.claim_type, v.description, v.status, v.created_at, v.updated_at, v.version)\
+            """.formatted(COLUMNS);
+    private static final String UPDATE = "UPDATE claims SET status = ?, updated_at = ?, version = ? WHERE id = ?";
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM claims";
+    private static final String SELECT_BY_ID = "SELECT " + COLUMNS + " FROM claims WHERE id = ?";
+    private static final String SELECT_HIGHEST_ID = "SELECT MAX(id) FROM claims";
+    private static final int FETCH_SIZE = 1000;
+    
+    private final DataSource dataSource;
+    
+    /**
+     * @param dataSource connections to the database, closed with this store if it is AutoCloseable
+     */
+    public JdbcClaimBackingStore(DataSource dataSource) throws IOException {
+        this.dataSource = dataSource;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        } catch (SQLException ex) {
+            throw new IOException("Failed to create the claims table", ex);
+        }
+    }
+    
+    @Override
+    public long highestId() throws IOException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(SELECT_HIGHEST_ID)) {
+            return result.next() ? result.getLong(1) : 0;
+        } catch (SQLException ex) {
+            throw new IOException("Failed to read the highest claim ID", ex);
+        }
+    }
+    
+    @Override
+    public Optional<Claim> load(long claimId) throws IOException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT_BY_ID)) {
+            select.setLong(1, claimId);
+            try (ResultSet result = select.executeQuery()) {
+                return result.next() ? Optional.of(toClaim(result)) : Optional.empty();
+            }
+        } catch (SQLException ex) {
+            throw new IOException("Failed to load claim " + claimId, ex);
+        }
+    }
+    
+    @Override
+    public void loadAll(Consumer<Claim> consumer) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            // Some drivers (PostgreSQL) only stream with a fetch size inside a transaction
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.setFetchSize(FETCH_SIZE);
+                try (ResultSet result = statement.executeQuery(SELECT_ALL)) {
+                    while (result.next()) {
+                        consumer.accept(toClaim(result));
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException ex) {
+            throw new IOException("Failed to load claims", ex);
+        }
+    }
+    
+    @Override
+    public void write(List<Claim> inserts, List<Claim> updates) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (!inserts.isEmpty()) {
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                        for (Claim claim : inserts) {
+                            insert.setLong(1, claim.getId());
+                            insert.setLong(2, claim.getCustomerId());
+                            insert.setString(3, claim.getClaimType());
+                            insert.setString(4, claim.getDescription());
+                            insert.setString(5, claim.getStatus().name());
+                            insert.setObject(6, claim.getCreatedAt());
+                            insert.setObject(7, claim.getUpdatedAt());
+                            insert.setInt(8, claim.getVersion());
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+                        for (Claim claim : updates) {
+                            update.setString(1, claim.getStatus().name());
+                            update.setObject(2, claim.getUpdatedAt());
+                            update.setInt(3, claim.getVersion());
+                            update.setLong(4, claim.getId());
+                            update.addBatch();
+                        }
+                        update.executeBatch();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            if (inserts.size() + updates.size() == 1 && isRejected(ex)) {
+                Claim claim = inserts.isEmpty() ? updates.get(0) : inserts.get(0);
+                throw new RejectedClaimException("The database rejected claim " + claim.getId(), ex);
+            }
+            throw new IOException("Failed to write " + (inserts.size() + updates.size()) + " claims", ex);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                throw new IOException("Failed to close the claims data source", ex);
+            }
+        }
+    }
+    
+    /**
+     * Whether the failure is down to the data written, a data exception (SQLSTATE class 22)
+     * or an integrity constraint violation (class 23), rather than to the database
+     */
+    private static boolean isRejected(SQLException ex) {
+        for (SQLException cause = ex; cause != null; cause = cause.getNextException()) {
+            String state = cause.getSQLState();
+            if (state != null && (state.startsWith("22") || state.startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static Claim toClaim(ResultSet result) throws SQLException {
+        return new Claim(result.getLong(1), result.getLong(2), result.getString(3), result.getString(4),
+                ClaimStatus.valueOf(result.getString(5)),
+                result.getObject(6, LocalDateTime.class),
+                result.getObject(7, LocalDateTime.class),
+                result.getInt(8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.metrics.ClaimMetrics;
+import com.insurance.claims.store.CachingClaimStore;
+import com.insurance.claims.store.ClaimStore;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class PersistenceConfiguration {
+    
+    /**
+     * Write-ahead log used when {@code claims.wal.enabled=true}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.wal.enabled", havingValue = "true")
+    public WriteAheadLog writeAheadLog(@Value("${claims.wal.directory}") Path directory,
+                                       @Value("${claims.wal.fsync}") WriteAheadLog.FsyncPolicy fsync,
+                                       @Value("${claims.wal.flush-interval}") Duration flushInterval) throws IOException {
+        return new WriteAheadLog(directory, fsync, flushInterval);
+    }
+    
+    /**
+     * Periodic snapshots and log compaction, on by default whenever the log is enabled
+     */
+    @Bean
+    @ConditionalOnProperty(name = {"claims.wal.enabled", "claims.snapshot.enabled"}, havingValue = "true")
+    public ClaimSnapshotter claimSnapshotter(WriteAheadLog writeAheadLog,
+                                             ClaimStore claimStore,
+                                             @Value("${claims.snapshot.interval}") Duration interval,
+                                             @Value("${claims.snapshot.min-log-size}") DataSize minLogSize) {
+        return new ClaimSnapshotter(writeAheadLog, claimStore, interval, minLogSize.toBytes());
+    }
+    
+    /**
+     * Asynchronous writes to a database used when {@code claims.write-behind.enabled=true}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.write-behind.enabled", havingValue = "true")
+    public WriteBehindJournal writeBehindJournal(@Value("${claims.write-behind.url}") String url,
+                                                 @Value("${claims.write-behind.username:}") String username,
+                                                 @Value("${claims.write-behind.password:}") String password,
+                                                 @Value("${claims.write-behind.pool-size:10}") int poolSize,
+                                                 @Value("${claims.write-behind.batch-size}") int batchSize,
+                                                 @Value("${claims.write-behind.queue-capacity}") int capacity,
+                                                 @Value("${claims.write-behind.flush-interval}") Duration flushInterval,
+                                                 @Value("${claims.wal.enabled:false}") boolean walEnabled,
+                                                 ClaimMetrics claimMetrics) throws IOException {
+        if (walEnabled) {
+            throw new IllegalStateException("claims.wal.enabled and claims.write-behind.enabled cannot both be true");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("claims-write-behind");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(poolSize);
+        return new WriteBehindJournal(new JdbcClaimBackingStore(dataSource),
+                batchSize, capacity, flushInterval, claimMetrics);
+    }
+    
+    /**
+     * Bounded in-memory working set over the write-behind database, used when
+     * {@code claims.store.type=cached}
+     */
+    @Bean
+    @ConditionalOnProperty(name = "claims.store.type", havingValue = "cached")
+    public CachingClaimStore cachingClaimStore(ClaimJournal claimJournal,
+                                               @Value("${claims.cache.max-size}") DataSize maxSize,
+                                               ClaimMetrics claimMetrics) {
+        if (!(claimJournal instanceof WriteBehindJournal writeBehindJournal)) {
+            throw new IllegalStateException("claims.store.type=cached needs claims.write-behind.enabled=true to load evicted claims");
+        }
+        return new CachingClaimStore(writeBehindJournal::load, maxSize.toBytes(), claimMetrics);
+    }
+    
+    /**
+     * In-memory only mode: claims are lost on restart
+     */
+    @Bean
+    @ConditionalOnProperty(name = {"claims.wal.enabled", "claims.write-behind.enabled"}, havingValue = "false", matchIfMissing = true)
+    public ClaimJournal noClaimJournal() {
+        return ClaimJournal.NONE;
+    }
+}
@@ -0,0 +1,14 @@
+package com.insurance.claims.persistence;
+
+import java.io.IOException;
+
+/**
+ * A claim the backing store will never accept as it is, e.g. one that breaks a column
+ * limit; retrying it would block every change queued behind it
+ */
+public class RejectedClaimException extends IOException {
+    
+    public RejectedClaimException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
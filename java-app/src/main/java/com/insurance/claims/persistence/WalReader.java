@@ -0,0 +1,72 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.ClaimStatus;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+
+/**
+ * Sequential decoder for {@link WriteAheadLog} files
+ */
+final class WalReader {
+    
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    
+    private WalReader() {
+    }
+    
+    /**
+     * Replays every intact record from the start of the channel, stopping at the first
+     * truncated or corrupt record
+     * 
+     * @return the offset just past the last intact record
+     */
+    static long replay(FileChannel channel, ClaimJournal.Replayer replayer) throws IOException {
+        long size = channel.size();
+        channel.position(0);
+        // Deliberately not closed: closing the stream would close the channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_SIZE));
+        byte[] body = new byte[256];
+        long position = 0;
+        while (position + 4 <= size) {
+            int length = in.readInt();
+            if (length <= 0 || position + 8 + length > size) {
+                break;
+            }
+            if (body.length < length) {
+                body = new byte[Math.max(length, body.length * 2)];
+            }
+            in.readFully(body, 0, length);
+            int checksum = in.readInt();
+            if (checksum != WriteAheadLog.checksum(body, 0, length) || !apply(ByteBuffer.wrap(body, 0, length), replayer)) {
+                break;
+            }
+            position += 8 + length;
+        }
+        return position;
+    }
+    
+    private static boolean apply(ByteBuffer record, ClaimJournal.Replayer replayer) {
+        byte type = record.get();
+        switch (type) {
+            case WriteAheadLog.CREATE -> replayer.onCreate(ClaimCodec.readClaim(record));
+            case WriteAheadLog.UNVERSIONED_CREATE -> replayer.onCreate(ClaimCodec.readUnversionedClaim(record));
+            case WriteAheadLog.STATUS_CHANGE, WriteAheadLog.UNVERSIONED_STATUS_CHANGE -> {
+                long claimId = record.getLong();
+                ClaimStatus status = ClaimCodec.status(record.get());
+                LocalDateTime updatedAt = ClaimCodec.fromEpochNanos(record.getLong());
+                int version = type == WriteAheadLog.STATUS_CHANGE ? record.getInt() : ClaimJournal.Replayer.NEXT_VERSION;
+                replayer.onStatusChange(claimId, status, updatedAt, version);
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,503 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.model.Claim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary log of claim changes with group commit.
+ * <p>
+ * Appenders encode their record outside the lock and copy it into an in-memory
+ * buffer. A single flusher thread swaps that buffer out, writes it with one
+ * {@link FileChannel#write} call and, depending on the {@link FsyncPolicy},
+ * forces it to disk, so a whole burst of appends shares one fsync.
+ * <p>
+ * The log is split into segment files named after the log position they start at.
+ * {@link #roll()} starts a new segment, which gives {@link ClaimSnapshotter} an exact
+ * cut point: a snapshot taken after the roll plus every segment from the roll
+ * position onwards reproduces the full state, and older segments can be deleted.
+ * ClaimService appends before it applies a change to the store, so changes run in
+ * {@link #recordChange} and a roll waits for those in progress: nothing appended before
+ * the cut can still be missing from the store when the snapshot reads it.
+ * <p>
+ * Record layout: {@code int length | byte type | payload | int crc32c(type + payload)}.
+ * A torn or corrupt tail left by a crash is detected by the checksum during
+ * replay and truncated.
+ */
+public class WriteAheadLog implements ClaimJournal {
+    
+    /**
+     * When appended records reach the disk
+     */
+    public enum FsyncPolicy {
+        /** Appenders wait for an fsync that covers their record (group commit) */
+        ALWAYS,
+        /** Records are fsynced every flush interval; appenders do not wait */
+        INTERVAL,
+        /** Records are written to the OS every flush interval but never fsynced */
+        NEVER
+    }
+    
+    /** Records written before claim versions were recorded; still replayed */
+    static final byte UNVERSIONED_CREATE = 1;
+    static final byte UNVERSIONED_STATUS_CHANGE = 2;
+    static final byte CREATE = 3;
+    static final byte STATUS_CHANGE = 4;
+    
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "claims.snapshot";
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final int FRAME_OVERHEAD = 4 + 1 + 4;
+    private static final int STATUS_CHANGE_PAYLOAD = 8 + 1 + 8 + 4;
+    
+    private final Path directory;
+    private final FsyncPolicy policy;
+    private final long flushIntervalNanos;
+    
+    /** Shared by changes between append and apply, exclusive for a roll */
+    private final ReentrantReadWriteLock cutGate = new ReentrantReadWriteLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private FileChannel channel;
+    private long segmentStart;
+    private ByteBuffer active;
+    private ByteBuffer inFlight;
+    private long appendedPosition;
+    private long durablePosition;
+    private boolean rollRequested;
+    private IOException failure;
+    private boolean recovered;
+    private boolean closed;
+    private Thread flusher;
+    
+    public WriteAheadLog(Path directory, FsyncPolicy policy, Duration flushInterval) throws IOException {
+        this(directory, policy, flushInterval, DEFAULT_BUFFER_SIZE);
+    }
+    
+    WriteAheadLog(Path directory, FsyncPolicy policy, Duration flushInterval, int bufferSize) throws IOException {
+        this.directory = directory;
+        this.policy = policy;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.active = ByteBuffer.allocate(bufferSize);
+        this.inFlight = ByteBuffer.allocate(bufferSize);
+        Files.createDirectories(directory);
+    }
+    
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        lock.lock();
+        try {
+            return recovered && !closed && failure == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Loads the latest snapshot, if any, then replays every segment written since it
+     */
+    @Override
+    public void replay(Replayer replayer) throws IOException {
+        lock.lock();
+        try {
+            if (recovered) {
+                throw new IllegalStateException("Write-ahead log in " + directory + " has already been replayed");
+            }
+            long snapshotPosition = ClaimSnapshot.read(getSnapshotFile(), replayer);
+            long start = Math.max(snapshotPosition, 0);
+            List<Long> segments = segmentStarts();
+            for (int i = 0; i < segments.size(); i++) {
+                long segment = segments.get(i);
+                if (segment < start) {
+                    // Fully covered by the snapshot; left behind by an interrupted cleanup
+                    continue;
+                }
+                boolean last = i == segments.size() - 1;
+                FileChannel segmentChannel = FileChannel.open(segmentFile(segment),
+                        StandardOpenOption.READ, StandardOpenOption.WRITE);
+                long validEnd = WalReader.replay(segmentChannel, replayer);
+                if (validEnd < segmentChannel.size()) {
+                    log.warn("Truncating {} bytes of incomplete records at the end of {}",
+                            segmentChannel.size() - validEnd, segmentFile(segment));
+                    segmentChannel.truncate(validEnd);
+                    segmentChannel.force(true);
+                }
+                if (last) {
+                    segmentChannel.position(validEnd);
+                    channel = segmentChannel;
+                    segmentStart = segment;
+                    start = segment + validEnd;
+                } else {
+                    segmentChannel.close();
+                    start = segment + validEnd;
+                }
+            }
+            if (channel == null) {
+                channel = openSegment(start);
+                segmentStart = start;
+            }
+            appendedPosition = start;
+            durablePosition = start;
+            recovered = true;
+            flusher = new Thread(this::flushLoop, "claims-wal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public long appendCreate(Claim claim) {
+        byte[] claimType = ClaimCodec.utf8(claim.getClaimType());
+        byte[] description = ClaimCodec.utf8(claim.getDescription());
+        ByteBuffer record = frame(CREATE, ClaimCodec.claimSize(claimType, description));
+        ClaimCodec.writeClaim(record, claim, claimType, description);
+        return append(seal(record));
+    }
+    
+    @Override
+    public long appendStatusChange(Claim claim) {
+        ByteBuffer record = frame(STATUS_CHANGE, STATUS_CHANGE_PAYLOAD);
+        record.putLong(claim.getId());
+        record.put(ClaimCodec.statusCode(claim.getStatus()));
+        record.putLong(ClaimCodec.toEpochNanos(claim.getUpdatedAt()));
+        record.putInt(claim.getVersion());
+        return append(seal(record));
+    }
+    
+    @Override
+    public <T> T recordChange(Supplier<T> change) {
+        cutGate.readLock().lock();
+        try {
+            return change.get();
+        } finally {
+            cutGate.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void awaitDurable(long position) {
+        if (policy != FsyncPolicy.ALWAYS) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                checkFailure();
+                flushRequested.signal();
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Flushes and fsyncs the current segment and starts a new one. Appends wait for the
+     * duration of the roll, so every record appended before this call lands in an older
+     * segment and every later record in the new one. Changes already in
+     * {@link #recordChange} are applied first.
+     * 
+     * @return the log position at which the new segment starts
+     */
+    public long roll() {
+        cutGate.writeLock().lock();
+        lock.lock();
+        try {
+            while (rollRequested) {
+                flushed.awaitUninterruptibly();
+            }
+            checkOpen();
+            if (appendedPosition == segmentStart) {
+                return segmentStart;
+            }
+            long target = appendedPosition;
+            rollRequested = true;
+            flushRequested.signal();
+            while (rollRequested) {
+                checkFailure();
+                flushed.awaitUninterruptibly();
+            }
+            return target;
+        } finally {
+            lock.unlock();
+            cutGate.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Deletes segments that end at or before the given position, typically the
+     * position a snapshot was taken at
+     * 
+     * @param position a position returned by {@link #roll()}
+     * @return the number of segments deleted
+     */
+    public int deleteSegmentsBefore(long position) throws IOException {
+        List<Long> segments = segmentStarts();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size() && segments.get(i + 1) <= position; i++) {
+            Files.deleteIfExists(segmentFile(segments.get(i)));
+            deleted++;
+        }
+        return deleted;
+    }
+    
+    /**
+     * @return the position just past the last appended record
+     */
+    public long getPosition() {
+        lock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * @return true once {@link #replay(Replayer)} has completed
+     */
+    public boolean isRecovered() {
+        lock.lock();
+        try {
+            return recovered;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * @return the directory holding the log segments and snapshot
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * @return the snapshot file read on replay
+     */
+    public Path getSnapshotFile() {
+        return directory.resolve(SNAPSHOT_FILE);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        Thread flusherThread;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flusherThread = flusher;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (flusherThread != null) {
+            try {
+                flusherThread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+    
+    private long append(ByteBuffer record) {
+        lock.lock();
+        try {
+            while (rollRequested) {
+                flushed.awaitUninterruptibly();
+            }
+            checkOpen();
+            int size = record.remaining();
+            while (active.remaining() < size) {
+                if (active.position() == 0) {
+                    // Oversized record: grow the buffer rather than waiting forever
+                    active = ByteBuffer.allocate(size);
+                    break;
+                }
+                flushRequested.signal();
+                flushed.awaitUninterruptibly();
+                checkFailure();
+            }
+            active.put(record);
+            appendedPosition += size;
+            if (policy == FsyncPolicy.ALWAYS) {
+                flushRequested.signal();
+            }
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchEnd;
+            boolean roll;
+            boolean finished;
+            FileChannel target;
+            lock.lock();
+            try {
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (!closed && !rollRequested && !flushDue(deadline)) {
+                    try {
+                        flushRequested.awaitNanos(Math.max(0, deadline - System.nanoTime()));
+                    } catch (InterruptedException ex) {
+                        closed = true;
+                    }
+                }
+                finished = closed;
+                roll = rollRequested;
+                ByteBuffer swap = inFlight;
+                inFlight = active;
+                active = swap;
+                batch = inFlight;
+                batchEnd = appendedPosition;
+                target = channel;
+            } finally {
+                lock.unlock();
+            }
+            
+            IOException error = null;
+            FileChannel next = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    target.write(batch);
+                }
+                if (policy != FsyncPolicy.NEVER || roll) {
+                    target.force(false);
+                }
+                if (roll) {
+                    next = openSegment(batchEnd);
+                    target.close();
+                }
+            } catch (IOException ex) {
+                error = ex;
+                log.error("Failed to write write-ahead log segment in {}", directory, ex);
+            } finally {
+                batch.clear();
+            }
+            
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    rollRequested = false;
+                } else {
+                    durablePosition = batchEnd;
+                    if (roll) {
+                        channel = next;
+                        segmentStart = batchEnd;
+                        rollRequested = false;
+                    }
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (finished || error != null) {
+                return;
+            }
+        }
+    }
+    
+    private boolean flushDue(long deadline) {
+        if (active.position() == 0) {
+            return false;
+        }
+        return policy == FsyncPolicy.ALWAYS
+                || lock.hasWaiters(flushed)
+                || System.nanoTime() - deadline >= 0;
+    }
+    
+    private void checkOpen() {
+        if (!recovered) {
+            throw new IllegalStateException("Write-ahead log in " + directory + " must be replayed before use");
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log in " + directory + " is closed");
+        }
+        checkFailure();
+    }
+    
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log in " + directory + " is unavailable", failure);
+        }
+    }
+    
+    private FileChannel openSegment(long start) throws IOException {
+        FileChannel segment = FileChannel.open(segmentFile(start),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment.position(segment.size());
+        return segment;
+    }
+    
+    private Path segmentFile(long start) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, start, SEGMENT_SUFFIX));
+    }
+    
+    private List<Long> segmentStarts() throws IOException {
+        List<Long> starts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                starts.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+    
+    private static ByteBuffer frame(byte type, int payloadSize) {
+        ByteBuffer record = ByteBuffer.allocate(FRAME_OVERHEAD + payloadSize);
+        record.putInt(1 + payloadSize);
+        record.put(type);
+        return record;
+    }
+    
+    private static ByteBuffer seal(ByteBuffer record) {
+        record.putInt(checksum(record.array(), 4, record.position() - 4));
+        return record.flip();
+    }
+    
+    static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,372 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.metrics.ClaimMetrics;
+import com.insurance.claims.model.Claim;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Journal that writes claim changes to a {@link ClaimBackingStore} asynchronously, so
+ * request latency does not depend on the database.
+ * <p>
+ * Appends copy the claim into a map of pending changes keyed by claim ID, so repeated
+ * changes to one claim coalesce into a single write of its latest state. A flusher
+ * thread writes pending claims in batches every flush interval, or as soon as a full
+ * batch is waiting. The map is bounded: once {@code capacity} claims are pending,
+ * {@link #awaitDurable(long)} blocks until the flusher makes room, and the journal
+ * reports itself unavailable so the pod is taken out of rotation while the backing
+ * store catches up. When a batch fails its claims are written one at a time, so a
+ * claim the store rejects outright is set aside (logged in full and counted) instead
+ * of holding up the queue; anything else stays pending and is retried with backoff.
+ * <p>
+ * Replay reads the highest stored ID up front and loads the claims on a background
+ * thread, so startup does not wait for the table scan; the journal becomes available
+ * once the load has finished. Changes wait for the load in {@link #recordChange}, so a
+ * loaded row never overwrites a newer change to the same claim.
+ */
+public class WriteBehindJournal implements ClaimJournal {
+    
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindJournal.class);
+    private static final long MAX_RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+    
+    private final ClaimBackingStore backingStore;
+    private final int batchSize;
+    private final int capacity;
+    private final long flushIntervalNanos;
+    private final ClaimMetrics claimMetrics;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Thread flusher;
+    private final CountDownLatch loadFinished = new CountDownLatch(1);
+    private volatile boolean replayed;
+    private volatile boolean loaded;
+    private volatile boolean closed;
+    
+    /**
+     * A claim's latest unwritten state
+     * 
+     * @param claim copy of the claim taken under its update lock
+     * @param insert whether the claim has never been written
+     * @param since System.nanoTime() of the oldest change this write covers
+     */
+    private record Pending(Claim claim, boolean insert, long since) {
+        // Identity, not component, equality: a flushed entry is only removed if it was not replaced meanwhile
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+    
+    public WriteBehindJournal(ClaimBackingStore backingStore, int batchSize, int capacity, Duration flushInterval) {
+        this(backingStore, batchSize, capacity, flushInterval, ClaimMetrics.NONE);
+    }
+    
+    public WriteBehindJournal(ClaimBackingStore backingStore, int batchSize, int capacity, Duration flushInterval,
+                              ClaimMetrics claimMetrics) {
+        if (batchSize < 1 || capacity < batchSize) {
+            throw new IllegalArgumentException("Need 1 <= batch size <= capacity, got " + batchSize + " and " + capacity);
+        }
+        this.backingStore = backingStore;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.claimMetrics = claimMetrics;
+        this.flusher = new Thread(this::runFlusher, "claims-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        claimMetrics.bindWriteBehind(this);
+    }
+    
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+    
+    @Override
+    public boolean isAvailable() {
+        return loaded && !closed && pendingCount.get() < capacity;
+    }
+    
+    @Override
+    public void replay(Replayer replayer) throws IOException {
+        if (replayed) {
+            throw new IllegalStateException("Write-behind journal has already been replayed");
+        }
+        replayed = true;
+        replayer.onHighestId(backingStore.highestId());
+        Thread loader = new Thread(() -> load(replayer), "claims-write-behind-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
+    /**
+     * Waits for the background load before running the change. Without this a claim read
+     * through and changed during the load would be replaced by its older row, and its
+     * indexes would be built from that row.
+     * 
+     * @throws IllegalStateException if the load failed
+     */
+    @Override
+    public <T> T recordChange(Supplier<T> change) {
+        if (!loaded) {
+            try {
+                loadFinished.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for claims to load", ex);
+            }
+            if (!loaded) {
+                throw new IllegalStateException("Claims could not be loaded from the backing store");
+            }
+        }
+        return change.get();
+    }
+    
+    @Override
+    public long appendCreate(Claim claim) {
+        enqueue(claim, true);
+        return 0;
+    }
+    
+    @Override
+    public long appendStatusChange(Claim claim) {
+        enqueue(claim, false);
+        return 0;
+    }
+    
+    /**
+     * Returns at once unless the pending map is full, in which case it blocks until
+     * the flusher has made room
+     */
+    @Override
+    public void awaitDurable(long position) {
+        if (pendingCount.get() < capacity) {
+            return;
+        }
+        LockSupport.unpark(flusher);
+        lock.lock();
+        try {
+            while (pendingCount.get() >= capacity && !closed) {
+                spaceAvailable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Reads a claim's latest state for a caching store that has evicted it: the pending
+     * change if the claim has one, otherwise the stored row
+     * 
+     * @param claimId the ID of the claim
+     * @return the claim, or null if it does not exist
+     */
+    public Claim load(long claimId) {
+        Pending change = pending.get(claimId);
+        if (change != null) {
+            return change.claim();
+        }
+        // A change removed from pending since the lookup above has already been committed
+        try {
+            return backingStore.load(claimId).orElse(null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * @return the number of claims with changes not yet written to the backing store
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+    
+    /**
+     * @return how long the oldest unwritten change has been waiting, or zero if none is
+     */
+    public Duration getFlushLag() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (Pending change : pending.values()) {
+            oldest = Math.min(oldest, change.since());
+        }
+        return Duration.ofNanos(now - oldest);
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * Stops the flusher after writing every pending change
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flushPending();
+        } finally {
+            signalSpaceAvailable();
+            backingStore.close();
+        }
+    }
+    
+    private void enqueue(Claim claim, boolean insert) {
+        pending.compute(claim.getId(), (id, previous) -> {
+            if (previous == null) {
+                pendingCount.incrementAndGet();
+                return new Pending(claim, insert, System.nanoTime());
+            }
+            // A claim that has never been written is still an insert after later changes
+            return new Pending(claim, previous.insert() || insert, previous.since());
+        });
+        if (pendingCount.get() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+    
+    private void load(Replayer replayer) {
+        long started = System.nanoTime();
+        long[] count = {0};
+        try {
+            backingStore.loadAll(claim -> {
+                replayer.onCreate(claim);
+                count[0]++;
+            });
+            loaded = true;
+            log.info("Loaded {} claims from the backing store in {} ms",
+                    count[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to load claims from the backing store after {} claims; staying unavailable", count[0], ex);
+        } finally {
+            loadFinished.countDown();
+        }
+    }
+    
+    private void runFlusher() {
+        long retryNanos = flushIntervalNanos;
+        while (!closed) {
+            if (pendingCount.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                flushPending();
+                retryNanos = flushIntervalNanos;
+            } catch (IOException | RuntimeException ex) {
+                claimMetrics.recordWriteBehindFailure();
+                log.error("Write-behind flush failed with {} claims pending; retrying in {} ms",
+                        pendingCount.get(), TimeUnit.NANOSECONDS.toMillis(retryNanos), ex);
+                LockSupport.parkNanos(this, retryNanos);
+                retryNanos = Math.min(retryNanos * 2, MAX_RETRY_NANOS);
+            }
+        }
+    }
+    
+    private void flushPending() throws IOException {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        List<Claim> inserts = new ArrayList<>(batchSize);
+        List<Claim> updates = new ArrayList<>(batchSize);
+        while (!pending.isEmpty()) {
+            batch.clear();
+            inserts.clear();
+            updates.clear();
+            for (Pending change : pending.values()) {
+                batch.add(change);
+                (change.insert() ? inserts : updates).add(change.claim());
+                if (batch.size() == batchSize) {
+                    break;
+                }
+            }
+            
+            long started = System.nanoTime();
+            try {
+                backingStore.write(inserts, updates);
+            } catch (IOException ex) {
+                log.warn("Write-behind batch of {} claims failed; writing them one at a time", batch.size(), ex);
+                writeEach(batch);
+                continue;
+            }
+            claimMetrics.recordWriteBehindFlush(batch.size(), System.nanoTime() - started);
+            for (Pending written : batch) {
+                removeWritten(written, true);
+            }
+            signalSpaceAvailable();
+        }
+    }
+    
+    /**
+     * Writes a failed batch claim by claim, setting aside those the store rejects
+     * 
+     * @throws IOException on the first failure that is not down to the claim itself
+     */
+    private void writeEach(List<Pending> batch) throws IOException {
+        for (Pending change : batch) {
+            long started = System.nanoTime();
+            boolean stored = true;
+            try {
+                backingStore.write(change.insert() ? List.of(change.claim()) : List.of(),
+                        change.insert() ? List.of() : List.of(change.claim()));
+                claimMetrics.recordWriteBehindFlush(1, System.nanoTime() - started);
+            } catch (RejectedClaimException ex) {
+                claimMetrics.recordWriteBehindRejected();
+                log.error("Backing store rejected {}; it stays in memory but is not written", change.claim(), ex);
+                stored = false;
+            }
+            removeWritten(change, stored);
+            signalSpaceAvailable();
+        }
+    }
+    
+    /**
+     * @param stored whether the claim's row now exists in the store
+     */
+    private void removeWritten(Pending written, boolean stored) {
+        pending.computeIfPresent(written.claim().getId(), (id, current) -> {
+            if (current == written) {
+                pendingCount.decrementAndGet();
+                return null;
+            }
+            // Changed again while being written; once the row exists the next write is an update
+            return stored && current.insert() ? new Pending(current.claim(), false, current.since()) : current;
+        });
+    }
+    
+    private void signalSpaceAvailable() {
+        lock.lock();
+        try {
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.insurance.claims.search;
+
+import com.insurance.claims.model.Claim;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongPredicate;
+
+/**
+ * Inverted index over claim descriptions: each word maps to a compressed
+ * {@link PostingList} of the claims containing it. Claims are indexed as they are
+ * created; descriptions never change, so entries are only ever added.
+ * <p>
+ * A query intersects the posting lists of its words, starting from the rarest, and
+ * ranks matches by BM25 without length normalization (descriptions are short), so
+ * rare words weigh more than common ones. Ties go to the newer claim.
+ */
+public class DescriptionIndex {
+    
+    private static final double K1 = 1.2;
+    
+    private final ConcurrentHashMap<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    
+    /**
+     * Best matches first, and the number of claims that matched in total
+     */
+    public record Result(long[] claimIds, int totalMatches) {
+        
+        static final Result EMPTY = new Result(new long[0], 0);
+    }
+    
+    private record Hit(long claimId, double score) {
+        
+        /** Worst first, so a bounded heap can drop its head */
+        static final Comparator<Hit> WORST_FIRST =
+                Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::claimId);
+    }
+    
+    /**
+     * Indexes a newly stored claim's description
+     * 
+     * @param claim the claim to index
+     */
+    public void add(Claim claim) {
+        if (claim.getDescription() == null) {
+            return;
+        }
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : Tokenizer.tokenize(claim.getDescription())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        long claimId = claim.getId();
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new PostingList()).add(claimId, frequency));
+        size.incrementAndGet();
+    }
+    
+    /**
+     * Finds the best matching claims
+     * 
+     * @param query the query; every term must occur in a matching description
+     * @param limit how many of the best matches to return
+     * @param filter further test of each claim containing every term (e.g. its phrases), or null
+     * @return up to limit claim IDs, best first, and the number of matches
+     */
+    public Result search(DescriptionQuery query, int limit, LongPredicate filter) {
+        List<String> terms = query.getTerms();
+        if (terms.isEmpty()) {
+            return Result.EMPTY;
+        }
+        PostingList.Snapshot[] lists = new PostingList.Snapshot[terms.size()];
+        for (int i = 0; i < lists.length; i++) {
+            PostingList list = postings.get(terms.get(i));
+            if (list == null) {
+                return Result.EMPTY;
+            }
+            lists[i] = list.snapshot();
+        }
+        // The rarest term drives the intersection; the others only skip ahead
+        Arrays.sort(lists, Comparator.comparingInt(PostingList.Snapshot::count));
+        int claims = Math.max(size.get(), 1);
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+        double[] weights = new double[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            cursors[i] = lists[i].cursor();
+            int count = lists[i].count();
+            weights[i] = Math.log(1 + (claims - count + 0.5) / (count + 0.5));
+        }
+        
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, Hit.WORST_FIRST);
+        int matches = 0;
+        PostingList.Cursor lead = cursors[0];
+        if (!lead.next()) {
+            return Result.EMPTY;
+        }
+        long target = lead.id;
+        int aligned = 1;
+        int i = 1;
+        while (true) {
+            if (aligned == cursors.length) {
+                if (filter == null || filter.test(target)) {
+                    matches++;
+                    Hit hit = new Hit(target, score(cursors, weights));
+                    if (best.size() < limit) {
+                        best.add(hit);
+                    } else if (Hit.WORST_FIRST.compare(hit, best.peek()) > 0) {
+                        best.poll();
+                        best.add(hit);
+                    }
+                }
+                if (!lead.next()) {
+                    break;
+                }
+                target = lead.id;
+                aligned = 1;
+                i = 1;
+                continue;
+            }
+            PostingList.Cursor cursor = cursors[i];
+            if (cursor.id < target && !cursor.advance(target)) {
+                break;
+            }
+            if (cursor.id == target) {
+                aligned++;
+                i = (i + 1) % cursors.length;
+            } else {
+                // Overshot: everything below the new target is missing this term
+                target = cursor.id;
+                aligned = 1;
+                i = (i + 1) % cursors.length;
+            }
+        }
+        
+        long[] claimIds = new long[best.size()];
+        for (int j = claimIds.length - 1; j >= 0; j--) {
+            claimIds[j] = best.poll().claimId();
+        }
+        return new Result(claimIds, matches);
+    }
+    
+    /**
+     * @return the number of indexed claims
+     */
+    public int size() {
+        return size.get();
+    }
+    
+    /**
+     * @return the number of distinct words
+     */
+    public int termCount() {
+        return postings.size();
+    }
+    
+    /**
+     * @return the size of the encoded posting lists in bytes
+     */
+    public long encodedBytes() {
+        long bytes = 0;
+        for (PostingList list : postings.values()) {
+            bytes += list.encodedBytes();
+        }
+        return bytes;
+    }
+    
+    /**
+     * Removes every entry from the index
+     */
+    public void clear() {
+        size.set(0);
+        postings.clear();
+    }
+    
+    private static double score(PostingList.Cursor[] cursors, double[] weights) {
+        double score = 0;
+        for (int i = 0; i < cursors.length; i++) {
+            int frequency = cursors[i].frequency;
+            score += weights[i] * frequency * (K1 + 1) / (frequency + K1);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,85 @@
+package com.insurance.claims.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A full-text query over claim descriptions. Every word must occur in the description;
+ * words in double quotes must also occur next to each other, in order. For example
+ * {@code water "burst pipe"} matches "Burst pipe flooded the kitchen, water everywhere"
+ * but not "Pipe burst".
+ */
+public final class DescriptionQuery {
+    
+    private final List<String> terms;
+    private final List<List<String>> phrases;
+    
+    private DescriptionQuery(List<String> terms, List<List<String>> phrases) {
+        this.terms = terms;
+        this.phrases = phrases;
+    }
+    
+    /**
+     * Parses a query; an unterminated quote runs to the end of the query
+     * 
+     * @param query the query text
+     * @return the parsed query, which has no terms if the text has no letters or digits
+     */
+    public static DescriptionQuery parse(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        List<List<String>> phrases = new ArrayList<>();
+        String[] segments = query.split("\"", -1);
+        for (int i = 0; i < segments.length; i++) {
+            List<String> tokens = Tokenizer.tokenize(segments[i]);
+            terms.addAll(tokens);
+            // Odd segments are inside quotes; a one-word phrase is just a term
+            if (i % 2 == 1 && tokens.size() > 1) {
+                phrases.add(tokens);
+            }
+        }
+        return new DescriptionQuery(List.copyOf(terms), List.copyOf(phrases));
+    }
+    
+    /**
+     * @return the distinct words the description must contain, including those in phrases
+     */
+    public List<String> getTerms() {
+        return terms;
+    }
+    
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+    
+    public boolean hasPhrases() {
+        return !phrases.isEmpty();
+    }
+    
+    /**
+     * Checks the quoted phrases, which the index cannot answer on its own since it does
+     * not store word positions
+     * 
+     * @param description a description that contains every term
+     * @return true if every phrase occurs in the description
+     */
+    public boolean matchesPhrases(String description) {
+        if (phrases.isEmpty()) {
+            return true;
+        }
+        List<String> tokens = Tokenizer.tokenize(description);
+        for (List<String> phrase : phrases) {
+            if (Collections.indexOfSubList(tokens, phrase) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return "DescriptionQuery{terms=" + terms + ", phrases=" + phrases + '}';
+    }
+}
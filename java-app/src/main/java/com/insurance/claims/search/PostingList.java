@@ -0,0 +1,312 @@
+package com.insurance.claims.search;
+
+import java.util.Arrays;
+
+/**
+ * The claims containing one term, as ascending claim IDs with the term's frequency in
+ * each description. Entries are varint-encoded deltas from the previous ID, so a
+ * posting usually takes 2-3 bytes instead of a boxed Long in a set. Every
+ * {@value #SKIP_INTERVAL}th entry starts a block with its absolute ID, and a skip table
+ * of block starts lets intersections jump over IDs they do not need.
+ * <p>
+ * Claims are mostly indexed in ID order and appended. IDs that arrive late (a request
+ * that took its ID before another but finished after it) wait in a small sorted
+ * pending list that is merged into the encoded blocks from the affected block onwards.
+ * <p>
+ * Writers synchronize on the list. Readers take the current {@link Snapshot} without
+ * locking: appends only write past the snapshot's length, and merges and growth write
+ * to new arrays.
+ */
+final class PostingList {
+    
+    static final int SKIP_INTERVAL = 64;
+    private static final int MERGE_THRESHOLD = 32;
+    private static final long[] NO_IDS = new long[0];
+    private static final int[] NO_FREQUENCIES = new int[0];
+    
+    /**
+     * A consistent view of the list for one query
+     */
+    record Snapshot(byte[] data, int encodedCount, long[] skipIds, int[] skipOffsets,
+                    long[] pendingIds, int[] pendingFrequencies) {
+        
+        /**
+         * @return the number of claims containing the term
+         */
+        int count() {
+            return encodedCount + pendingIds.length;
+        }
+        
+        Cursor cursor() {
+            return new Cursor(this);
+        }
+    }
+    
+    private byte[] data = new byte[16];
+    private int length;
+    private int encodedCount;
+    private long lastId;
+    private long[] skipIds = new long[1];
+    private int[] skipOffsets = new int[1];
+    private long[] pendingIds = NO_IDS;
+    private int[] pendingFrequencies = NO_FREQUENCIES;
+    private volatile Snapshot snapshot = new Snapshot(data, 0, skipIds, skipOffsets, NO_IDS, NO_FREQUENCIES);
+    
+    /**
+     * Adds a claim. Adding a claim that is already in the list has no effect, unless
+     * the first add has since been merged out of the pending list.
+     * 
+     * @param claimId the claim's ID
+     * @param frequency how often the term occurs in the claim's description
+     */
+    synchronized void add(long claimId, int frequency) {
+        if (encodedCount > 0 && claimId <= lastId) {
+            if (!addPending(claimId, frequency)) {
+                return;
+            }
+            if (pendingIds.length >= MERGE_THRESHOLD) {
+                mergePending();
+            }
+        } else {
+            append(claimId, frequency);
+        }
+        snapshot = new Snapshot(data, encodedCount, skipIds, skipOffsets, pendingIds, pendingFrequencies);
+    }
+    
+    Snapshot snapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * @return the number of bytes of encoded postings, for sizing the index
+     */
+    synchronized int encodedBytes() {
+        return length;
+    }
+    
+    private void append(long claimId, int frequency) {
+        if (data.length - length < 15) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 15));
+        }
+        if (encodedCount % SKIP_INTERVAL == 0) {
+            int block = encodedCount / SKIP_INTERVAL;
+            if (block == skipIds.length) {
+                skipIds = Arrays.copyOf(skipIds, block * 2);
+                skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+            }
+            skipIds[block] = claimId;
+            skipOffsets[block] = length;
+            length = writeVarLong(data, length, claimId);
+        } else {
+            length = writeVarLong(data, length, claimId - lastId);
+        }
+        length = writeVarLong(data, length, frequency);
+        lastId = claimId;
+        encodedCount++;
+    }
+    
+    private boolean addPending(long claimId, int frequency) {
+        int index = Arrays.binarySearch(pendingIds, claimId);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        long[] ids = new long[pendingIds.length + 1];
+        int[] frequencies = new int[ids.length];
+        System.arraycopy(pendingIds, 0, ids, 0, index);
+        System.arraycopy(pendingFrequencies, 0, frequencies, 0, index);
+        ids[index] = claimId;
+        frequencies[index] = frequency;
+        System.arraycopy(pendingIds, index, ids, index + 1, pendingIds.length - index);
+        System.arraycopy(pendingFrequencies, index, frequencies, index + 1, pendingIds.length - index);
+        pendingIds = ids;
+        pendingFrequencies = frequencies;
+        return true;
+    }
+    
+    /**
+     * Re-encodes from the block holding the first pending ID onwards. Earlier blocks are
+     * copied as bytes, so the cost is a copy of the list plus decoding its tail.
+     */
+    private void mergePending() {
+        int block = Math.max(0, floorBlock(skipIds, blockCount(encodedCount), pendingIds[0]));
+        int firstEntry = block * SKIP_INTERVAL;
+        int tailCount = encodedCount - firstEntry;
+        long[] tailIds = new long[tailCount];
+        int[] tailFrequencies = new int[tailCount];
+        Cursor tail = new Cursor(new Snapshot(data, encodedCount, skipIds, skipOffsets, NO_IDS, NO_FREQUENCIES));
+        tail.seekBlock(block);
+        for (int i = 0; i < tailCount; i++) {
+            tail.next();
+            tailIds[i] = tail.id;
+            tailFrequencies[i] = tail.frequency;
+        }
+        long[] merging = pendingIds;
+        int[] mergingFrequencies = pendingFrequencies;
+        
+        // Readers of earlier snapshots keep the old arrays
+        int start = skipOffsets[block];
+        byte[] rewritten = new byte[data.length];
+        System.arraycopy(data, 0, rewritten, 0, start);
+        data = rewritten;
+        skipIds = skipIds.clone();
+        skipOffsets = skipOffsets.clone();
+        length = start;
+        encodedCount = firstEntry;
+        pendingIds = NO_IDS;
+        pendingFrequencies = NO_FREQUENCIES;
+        
+        int t = 0;
+        int p = 0;
+        while (t < tailCount || p < merging.length) {
+            if (p == merging.length || (t < tailCount && tailIds[t] < merging[p])) {
+                append(tailIds[t], tailFrequencies[t]);
+                t++;
+            } else {
+                if (t < tailCount && tailIds[t] == merging[p]) {
+                    t++;
+                }
+                append(merging[p], mergingFrequencies[p]);
+                p++;
+            }
+        }
+    }
+    
+    private static int blockCount(int entries) {
+        return (entries + SKIP_INTERVAL - 1) / SKIP_INTERVAL;
+    }
+    
+    /**
+     * @return the last block starting at or before the ID, or -1 if the first block starts after it
+     */
+    private static int floorBlock(long[] skipIds, int blocks, long claimId) {
+        int index = Arrays.binarySearch(skipIds, 0, blocks, claimId);
+        return index >= 0 ? index : -index - 2;
+    }
+    
+    private static int writeVarLong(byte[] data, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+    
+    /**
+     * Iterates a snapshot in ascending ID order, merging the encoded entries with the
+     * pending ones. {@link #id} and {@link #frequency} describe the current entry after
+     * {@link #next()} or {@link #advance(long)} returns true.
+     */
+    static final class Cursor {
+        
+        private final byte[] data;
+        private final int encodedCount;
+        private final long[] skipIds;
+        private final int[] skipOffsets;
+        private final int blocks;
+        private final long[] pendingIds;
+        private final int[] pendingFrequencies;
+        /** Next encoded entry to decode */
+        private int position;
+        private int index;
+        /** Encoded entry decoded but not yet returned */
+        private boolean encodedValid;
+        private long encodedId;
+        private int encodedFrequency;
+        private int pendingIndex;
+        
+        long id = Long.MIN_VALUE;
+        int frequency;
+        
+        private Cursor(Snapshot snapshot) {
+            this.data = snapshot.data();
+            this.encodedCount = snapshot.encodedCount();
+            this.skipIds = snapshot.skipIds();
+            this.skipOffsets = snapshot.skipOffsets();
+            this.blocks = blockCount(encodedCount);
+            this.pendingIds = snapshot.pendingIds();
+            this.pendingFrequencies = snapshot.pendingFrequencies();
+            readEncoded();
+        }
+        
+        /**
+         * Moves to the next entry
+         * 
+         * @return false if there are no more entries
+         */
+        boolean next() {
+            boolean hasPending = pendingIndex < pendingIds.length;
+            if (hasPending && (!encodedValid || pendingIds[pendingIndex] <= encodedId)) {
+                id = pendingIds[pendingIndex];
+                frequency = pendingFrequencies[pendingIndex];
+                pendingIndex++;
+                if (encodedValid && encodedId == id) {
+                    readEncoded();
+                }
+                return true;
+            }
+            if (!encodedValid) {
+                return false;
+            }
+            id = encodedId;
+            frequency = encodedFrequency;
+            readEncoded();
+            return true;
+        }
+        
+        /**
+         * Moves to the first entry with an ID of at least the target, skipping whole
+         * blocks where possible. The target must be greater than the current ID.
+         * 
+         * @return false if there is no such entry
+         */
+        boolean advance(long target) {
+            if (encodedValid && encodedId < target) {
+                // The decoded-but-unreturned entry is index - 1; only search the skip
+                // table when the target is past the start of the next block
+                int nextBlock = (index - 1) / SKIP_INTERVAL + 1;
+                if (nextBlock < blocks && skipIds[nextBlock] <= target) {
+                    seekBlock(floorBlock(skipIds, blocks, target));
+                }
+                while (encodedValid && encodedId < target) {
+                    readEncoded();
+                }
+            }
+            while (pendingIndex < pendingIds.length && pendingIds[pendingIndex] < target) {
+                pendingIndex++;
+            }
+            return next();
+        }
+        
+        private void seekBlock(int block) {
+            index = block * SKIP_INTERVAL;
+            position = skipOffsets[block];
+            readEncoded();
+        }
+        
+        private void readEncoded() {
+            if (index >= encodedCount) {
+                encodedValid = false;
+                return;
+            }
+            long value = readVarLong();
+            encodedId = index % SKIP_INTERVAL == 0 ? value : encodedId + value;
+            encodedFrequency = (int) readVarLong();
+            encodedValid = true;
+            index++;
+        }
+        
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
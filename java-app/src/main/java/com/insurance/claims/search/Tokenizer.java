@@ -0,0 +1,40 @@
+package com.insurance.claims.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into lowercase runs of letters and digits. "Rear-end collision!" becomes
+ * [rear, end, collision], so queries and descriptions agree on word boundaries.
+ */
+final class Tokenizer {
+    
+    /** Longer runs (pasted IDs, base64) are cut to this length */
+    static final int MAX_TOKEN_LENGTH = 64;
+    
+    private Tokenizer() {
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TOKEN_LENGTH) {
+                    token.append(Character.toLowerCase(c));
+                }
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,63 @@
+package com.insurance.claims.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+@Service
+public class ClaimExportService {
+    
+    private final ClaimService claimService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter claimWriter;
+    
+    @Autowired
+    public ClaimExportService(ClaimService claimService, ObjectMapper objectMapper) {
+        this.claimService = claimService;
+        this.objectMapper = objectMapper;
+        // Let the generator's buffer decide when to hit the socket instead of flushing per claim
+        this.claimWriter = objectMapper.writerFor(Claim.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    /**
+     * Writes matching claims to the stream as NDJSON, one claim per line. Claims are
+     * serialized as they are visited, so heap use does not grow with the number of claims.
+     * 
+     * @param out the stream to write to; it is flushed but not closed
+     * @param status status filter, or null for any status
+     * @param claimType claim type filter, or null for any type
+     * @param updatedSince only claims updated at or after this time, or null for all
+     * @return the number of claims written
+     * @throws IOException if writing to the stream fails
+     */
+    public long exportClaims(OutputStream out, ClaimStatus status, String claimType, LocalDateTime updatedSince)
+            throws IOException {
+        long[] count = new long[1];
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            claimService.forEachClaim(status, claimType, updatedSince, claim -> {
+                try {
+                    claimWriter.writeValue(generator, claim);
+                    generator.writeRaw('\n');
+                    count[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return count[0];
+    }
+}
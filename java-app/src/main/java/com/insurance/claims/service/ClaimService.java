@@ -1,46 +1,169 @@
 package com.insurance.claims.service;
 
+import com.insurance.claims.dto.ClaimPage;
 import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.dto.ClaimStats;
+import com.insurance.claims.dto.CustomerClaimStats;
+import com.insurance.claims.dto.DescriptionSearchPage;
+import com.insurance.claims.events.ClaimEventPublisher;
+import com.insurance.claims.events.ClaimStatusEvent;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.exception.InvalidStatusTransitionException;
+import com.insurance.claims.id.ClaimIdGenerator;
+import com.insurance.claims.id.SequentialClaimIdGenerator;
+import com.insurance.claims.metrics.ClaimMetrics;
 import com.insurance.claims.model.Claim;
 import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.ClaimJournal;
+import com.insurance.claims.search.DescriptionIndex;
+import com.insurance.claims.search.DescriptionQuery;
+import com.insurance.claims.store.ClaimIndex;
+import com.insurance.claims.store.ClaimStatistics;
+import com.insurance.claims.store.ClaimStore;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
 
 @Service
 public class ClaimService {
     
-    private final Map<Long, Claim> claimsStorage = new HashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    /** Full-text results are ranked, so pages beyond this many results are not served */
+    public static final int MAX_DESCRIPTION_RESULTS = 1000;
+    
+    private final ClaimStore claimsStorage;
+    private final ClaimJournal claimJournal;
+    private final ClaimMetrics claimMetrics;
+    private final ClaimEventPublisher claimEventPublisher;
+    private final ClaimIndex claimIndex = new ClaimIndex();
+    private final DescriptionIndex descriptionIndex = new DescriptionIndex();
+    private final ClaimStatistics claimStatistics = new ClaimStatistics();
+    private final ClaimIdGenerator idGenerator;
     
     public ClaimService() {
-        initializeHardcodedClaims();
+        this(new ConcurrentClaimStore());
+    }
+    
+    public ClaimService(ClaimStore claimsStorage) {
+        this(claimsStorage, ClaimJournal.NONE);
+    }
+    
+    public ClaimService(ClaimStore claimsStorage, ClaimJournal claimJournal) {
+        this(claimsStorage, claimJournal, ClaimMetrics.NONE);
+    }
+    
+    public ClaimService(ClaimStore claimsStorage, ClaimJournal claimJournal, ClaimMetrics claimMetrics) {
+        this(claimsStorage, claimJournal, claimMetrics, ClaimEventPublisher.NONE);
+    }
+    
+    public ClaimService(ClaimStore claimsStorage, ClaimJournal claimJournal, ClaimMetrics claimMetrics,
+                        ClaimEventPublisher claimEventPublisher) {
+        this(claimsStorage, claimJournal, claimMetrics, claimEventPublisher, new SequentialClaimIdGenerator());
+    }
+    
+    @Autowired
+    public ClaimService(ClaimStore claimsStorage, ClaimJournal claimJournal, ClaimMetrics claimMetrics,
+                        ClaimEventPublisher claimEventPublisher, ClaimIdGenerator idGenerator) {
+        this.claimsStorage = claimsStorage;
+        this.idGenerator = idGenerator;
+        this.claimJournal = claimJournal;
+        this.claimMetrics = claimMetrics;
+        this.claimEventPublisher = claimEventPublisher;
+        claimMetrics.bindStoreSize(claimsStorage);
+        if (claimJournal.isDurable()) {
+            recoverFromJournal();
+        } else {
+            initializeHardcodedClaims();
+        }
     }
     
     /**
-     * Initializes the service with 3 hardcoded claims for testing purposes
+     * Rebuilds the store and indexes by replaying the journal, and makes sure
+     * new IDs come after the highest recovered ID
+     */
+    private void recoverFromJournal() {
+        long[] maxId = {0};
+        try {
+            claimJournal.replay(new ClaimJournal.Replayer() {
+                @Override
+                public void onCreate(Claim claim) {
+                    // A claim can be in both the snapshot and the log after it; the log entry wins
+                    Optional<Claim> existing = claimsStorage.findResident(claim.getId());
+                    claimsStorage.save(claim);
+                    if (existing.isPresent()) {
+                        claimIndex.moveStatus(claim.getId(), existing.get().getStatus(), claim.getStatus());
+                        claimStatistics.moveStatus(existing.get().getStatus(), claim.getStatus());
+                    } else {
+                        claimIndex.add(claim);
+                        descriptionIndex.add(claim);
+                        claimStatistics.add(claim);
+                    }
+                    maxId[0] = Math.max(maxId[0], claim.getId());
+                }
+                
+                @Override
+                public void onStatusChange(long claimId, ClaimStatus status, LocalDateTime updatedAt, int version) {
+                    claimsStorage.update(claimId, claim -> {
+                        claimIndex.moveStatus(claimId, claim.getStatus(), status);
+                        claimStatistics.moveStatus(claim.getStatus(), status);
+                        return version == NEXT_VERSION ? claim.withStatus(status, updatedAt)
+                                : claim.withStatus(status, updatedAt, version);
+                    });
+                }
+                
+                @Override
+                public void onHighestId(long claimId) {
+                    idGenerator.advancePast(claimId);
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to replay claim journal", ex);
+        }
+        idGenerator.advancePast(maxId[0]);
+    }
+    
+    /**
+     * Initializes the service with 3 hardcoded claims for testing purposes. They have
+     * fixed IDs 1-3, so every replica seeds the same claims under the same IDs.
      */
     private void initializeHardcodedClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        
         // Claim 1: Auto insurance claim
-        Claim claim1 = new Claim(12345L, "Auto", "Car accident on highway - rear-end collision");
-        claim1.setId(idGenerator.getAndIncrement());
-        claim1.setStatus(ClaimStatus.UNDER_REVIEW);
-        claimsStorage.put(claim1.getId(), claim1);
+        Claim claim1 = new Claim(1L, 12345L, "Auto", "Car accident on highway - rear-end collision",
+                ClaimStatus.UNDER_REVIEW, now, now, 0);
+        claimsStorage.save(claim1);
+        claimIndex.add(claim1);
+        descriptionIndex.add(claim1);
+        claimStatistics.add(claim1);
         
         // Claim 2: Home insurance claim
-        Claim claim2 = new Claim(67890L, "Home", "Water damage from burst pipe in basement");
-        claim2.setId(idGenerator.getAndIncrement());
-        claim2.setStatus(ClaimStatus.APPROVED);
-        claimsStorage.put(claim2.getId(), claim2);
+        Claim claim2 = new Claim(2L, 67890L, "Home", "Water damage from burst pipe in basement",
+                ClaimStatus.APPROVED, now, now, 0);
+        claimsStorage.save(claim2);
+        claimIndex.add(claim2);
+        descriptionIndex.add(claim2);
+        claimStatistics.add(claim2);
         
         // Claim 3: Health insurance claim
-        Claim claim3 = new Claim(11111L, "Health", "Emergency room visit for broken arm");
-        claim3.setId(idGenerator.getAndIncrement());
-        claim3.setStatus(ClaimStatus.SUBMITTED);
-        claimsStorage.put(claim3.getId(), claim3);
+        Claim claim3 = new Claim(3L, 11111L, "Health", "Emergency room visit for broken arm",
+                ClaimStatus.SUBMITTED, now, now, 0);
+        claimsStorage.save(claim3);
+        claimIndex.add(claim3);
+        descriptionIndex.add(claim3);
+        claimStatistics.add(claim3);
+        
+        idGenerator.advancePast(3L);
     }
     
     /**
@@ -50,20 +173,75 @@ public class ClaimService {
      * @return the created claim with assigned ID and initial status
      */
     public Claim createClaim(ClaimRequest claimRequest) {
+        long start = System.nanoTime();
         Claim claim = new Claim(
+                idGenerator.nextId(),
                 claimRequest.getCustomerId(),
                 claimRequest.getClaimType(),
                 claimRequest.getDescription()
         );
         
-        Long claimId = idGenerator.getAndIncrement();
-        claim.setId(claimId);
-        
-        claimsStorage.put(claimId, claim);
+        long journalPosition = claimJournal.recordChange(() -> {
+            long position = claimJournal.appendCreate(claim);
+            claimsStorage.save(claim);
+            claimIndex.add(claim);
+            descriptionIndex.add(claim);
+            claimStatistics.add(claim);
+            return position;
+        });
+        claimJournal.awaitDurable(journalPosition);
         
+        claimMetrics.recordCreate(claim.getClaimType(), System.nanoTime() - start);
         return claim;
     }
     
+    /**
+     * Creates claims for a batch of already validated requests. IDs increase in
+     * request order and the claims are stored in bulk.
+     * 
+     * @param claimRequests the validated claim requests
+     * @return the created claims, in request order
+     */
+    public List<Claim> createClaims(List<ClaimRequest> claimRequests) {
+        if (claimRequests.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        long[] ids = idGenerator.nextIds(claimRequests.size());
+        List<Claim> claims = new ArrayList<>(claimRequests.size());
+        for (int i = 0; i < claimRequests.size(); i++) {
+            ClaimRequest claimRequest = claimRequests.get(i);
+            claims.add(new Claim(
+                    ids[i],
+                    claimRequest.getCustomerId(),
+                    claimRequest.getClaimType(),
+                    claimRequest.getDescription()
+            ));
+        }
+        
+        long journalPosition = claimJournal.recordChange(() -> {
+            long position = 0;
+            for (Claim claim : claims) {
+                position = claimJournal.appendCreate(claim);
+            }
+            claimsStorage.saveAll(claims);
+            for (Claim claim : claims) {
+                claimIndex.add(claim);
+                descriptionIndex.add(claim);
+                claimStatistics.add(claim);
+            }
+            return position;
+        });
+        // One wait covers the whole batch
+        claimJournal.awaitDurable(journalPosition);
+        
+        for (Claim claim : claims) {
+            claimMetrics.recordClaimType(claim.getClaimType());
+        }
+        claimMetrics.recordCreateBatch(System.nanoTime() - start);
+        return claims;
+    }
+    
     /**
      * Retrieves a claim by its ID
      * 
@@ -71,23 +249,184 @@ public class ClaimService {
      * @return an Optional containing the claim if found, or empty if not found
      */
     public Optional<Claim> getClaimById(Long claimId) {
-        return Optional.ofNullable(claimsStorage.get(claimId));
+        long start = System.nanoTime();
+        Optional<Claim> claim = claimsStorage.findById(claimId);
+        claimMetrics.recordGet(claim.isPresent(), System.nanoTime() - start);
+        return claim;
     }
     
     /**
-     * Updates the status of an existing claim
+     * Updates the status of an existing claim without checking the transition or the
+     * claim's version. Concurrent updates to the same claim are applied one at a time.
+     * The stored claim is replaced by an updated copy, so readers holding the previous
+     * claim keep a consistent snapshot.
      * 
      * @param claimId the ID of the claim to update
      * @param newStatus the new status to set
      * @return an Optional containing the updated claim if found, or empty if not found
      */
     public Optional<Claim> updateClaimStatus(Long claimId, ClaimStatus newStatus) {
-        Claim claim = claimsStorage.get(claimId);
-        if (claim != null) {
-            claim.setStatus(newStatus);
-            return Optional.of(claim);
+        return applyStatusChange(claimId, newStatus, null);
+    }
+    
+    /**
+     * Compare-and-set status change: the claim moves to the new status only if it still
+     * passes the precondition (typically a version check) and the transition is allowed
+     * by {@link ClaimStatus#canTransitionTo}. Both checks run in the same per-claim update
+     * as the change itself, so no other writer can slip in between.
+     * 
+     * @param claimId the ID of the claim to update
+     * @param newStatus the new status to set
+     * @param precondition test of the current claim, e.g. that its version is the one the caller read
+     * @return an Optional containing the updated claim if found, or empty if not found
+     * @throws ClaimVersionConflictException if the precondition does not hold
+     * @throws InvalidStatusTransitionException if the transition is not allowed
+     */
+    public Optional<Claim> changeClaimStatus(Long claimId, ClaimStatus newStatus, Predicate<Claim> precondition) {
+        return applyStatusChange(claimId, newStatus, claim -> {
+            if (!precondition.test(claim)) {
+                throw new ClaimVersionConflictException(claimId, claim.getVersion(), claim.getUpdatedAt());
+            }
+            if (!claim.getStatus().canTransitionTo(newStatus)) {
+                throw new InvalidStatusTransitionException(claimId, claim.getStatus(), newStatus);
+            }
+        });
+    }
+    
+    private Optional<Claim> applyStatusChange(Long claimId, ClaimStatus newStatus, Consumer<Claim> check) {
+        long start = System.nanoTime();
+        long[] journalPosition = {0};
+        ClaimStatusEvent[] event = {null};
+        Optional<Claim> updated = claimJournal.recordChange(() -> claimsStorage.update(claimId, claim -> {
+            if (check != null) {
+                // Throwing here leaves the stored claim untouched
+                check.accept(claim);
+            }
+            ClaimStatus previousStatus = claim.getStatus();
+            Claim changed = claim.withStatus(newStatus, LocalDateTime.now());
+            // Journal first: if the append fails the store, indexes and statistics all stay as they were
+            journalPosition[0] = claimJournal.appendStatusChange(changed);
+            claimIndex.moveStatus(claimId, previousStatus, newStatus);
+            claimStatistics.moveStatus(previousStatus, newStatus);
+            claimMetrics.recordTransition(previousStatus, newStatus);
+            event[0] = ClaimStatusEvent.of(changed, previousStatus);
+            return changed;
+        }));
+        // Wait for durability after the claim lock is released so other writers are not held up by fsync
+        claimJournal.awaitDurable(journalPosition[0]);
+        claimMetrics.recordUpdateStatus(System.nanoTime() - start);
+        // Subscribers only hear about changes that survive a restart
+        if (event[0] != null) {
+            claimEventPublisher.publish(event[0]);
+        }
+        return updated;
+    }
+    
+    /**
+     * Searches claims by any combination of customer, status and type using the
+     * secondary indexes. Results are ordered by claim ID; pass the returned cursor
+     * to fetch the next page.
+     * 
+     * @param customerId customer filter, or null for any customer
+     * @param status status filter, or null for any status
+     * @param claimType claim type filter, or null for any type
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit the maximum number of claims to return
+     * @return a page of matching claims with the cursor for the next page
+     */
+    public ClaimPage searchClaims(Long customerId, ClaimStatus status, String claimType, Long cursor, int limit) {
+        Iterator<Long> candidates = claimIndex.candidates(customerId, status, claimType, cursor);
+        List<Claim> claims = new ArrayList<>(Math.min(limit, 64));
+        Long lastId = null;
+        while (candidates.hasNext()) {
+            Long id = candidates.next();
+            Optional<Claim> claim = claimsStorage.findById(id);
+            // The index can trail an in-flight status change, so confirm against the stored claim
+            if (claim.isEmpty() || !matches(claim.get(), customerId, status, claimType)) {
+                continue;
+            }
+            if (claims.size() == limit) {
+                return new ClaimPage(claims, lastId);
+            }
+            claims.add(claim.get());
+            lastId = id;
+        }
+        return new ClaimPage(claims, null);
+    }
+    
+    /**
+     * Full-text search over claim descriptions through the inverted description index.
+     * Matches contain every word of the query and every quoted phrase; they are ranked
+     * by relevance, newest first on ties, and paged by offset.
+     * 
+     * @param query the parsed query, with at least one term
+     * @param offset the number of ranked results to skip
+     * @param limit the maximum number of claims to return; offset + limit must not
+     *              exceed {@link #MAX_DESCRIPTION_RESULTS}
+     * @return a page of matching claims, the number of matches and the next offset
+     */
+    public DescriptionSearchPage searchDescriptions(DescriptionQuery query, int offset, int limit) {
+        long start = System.nanoTime();
+        // The index has no word positions, so phrases are checked against the stored description
+        LongPredicate phrases = query.hasPhrases()
+                ? id -> claimsStorage.findById(id).map(claim -> query.matchesPhrases(claim.getDescription())).orElse(false)
+                : null;
+        DescriptionIndex.Result result = descriptionIndex.search(query, offset + limit, phrases);
+        long[] ids = result.claimIds();
+        List<Claim> claims = new ArrayList<>(Math.max(0, ids.length - offset));
+        for (int i = offset; i < ids.length; i++) {
+            claimsStorage.findById(ids[i]).ifPresent(claims::add);
+        }
+        int nextOffset = offset + limit;
+        boolean more = nextOffset < Math.min(result.totalMatches(), MAX_DESCRIPTION_RESULTS);
+        claimMetrics.recordDescriptionSearch(System.nanoTime() - start);
+        return new DescriptionSearchPage(claims, result.totalMatches(), more ? nextOffset : null);
+    }
+    
+    /**
+     * Visits every claim matching the filters without materializing the result set.
+     * Status and type filters are resolved through the secondary indexes; otherwise
+     * the whole store is walked, or the indexes if the store does not hold every claim.
+     * 
+     * @param status status filter, or null for any status
+     * @param claimType claim type filter, or null for any type
+     * @param updatedSince only claims updated at or after this time, or null for all
+     * @param action the action to apply to each matching claim
+     */
+    public void forEachClaim(ClaimStatus status, String claimType, LocalDateTime updatedSince,
+                             Consumer<? super Claim> action) {
+        Consumer<Claim> filtered = claim -> {
+            if (matches(claim, null, status, claimType)
+                    && (updatedSince == null || !claim.getUpdatedAt().isBefore(updatedSince))) {
+                action.accept(claim);
+            }
+        };
+        if (status == null && claimType == null && claimsStorage.holdsAllClaims()) {
+            claimsStorage.forEach(filtered);
+            return;
+        }
+        Iterator<Long> candidates = claimIndex.candidates(null, status, claimType, null);
+        while (candidates.hasNext()) {
+            claimsStorage.findById(candidates.next()).ifPresent(filtered);
         }
-        return Optional.empty();
+    }
+    
+    /**
+     * Claim counts by status and by claim type, maintained as claims are created and
+     * change status, so this does not walk the store
+     * 
+     * @return the current counts
+     */
+    public ClaimStats getClaimStats() {
+        return new ClaimStats(claimStatistics.total(), claimStatistics.countsByStatus(), claimStatistics.countsByType());
+    }
+    
+    /**
+     * @param customerId the customer ID
+     * @return the number of claims the customer has submitted
+     */
+    public CustomerClaimStats getCustomerClaimStats(long customerId) {
+        return new CustomerClaimStats(customerId, claimStatistics.countByCustomer(customerId));
     }
     
     /**
@@ -96,7 +435,17 @@ public class ClaimService {
      * @return the count of claims
      */
     public int getClaimsCount() {
-        return claimsStorage.size();
+        return claimsStorage.holdsAllClaims() ? claimsStorage.size() : claimIndex.size();
+    }
+    
+    /**
+     * Whether the service can take traffic: its state has been restored and
+     * changes can be journaled
+     * 
+     * @return true if claims can be served and stored
+     */
+    public boolean isReady() {
+        return claimJournal.isAvailable();
     }
     
     /**
@@ -104,6 +453,15 @@ public class ClaimService {
      */
     public void clearAllClaims() {
         claimsStorage.clear();
-        idGenerator.set(1);
+        claimIndex.clear();
+        descriptionIndex.clear();
+        claimStatistics.clear();
+        idGenerator.reset();
+    }
+    
+    private static boolean matches(Claim claim, Long customerId, ClaimStatus status, String claimType) {
+        return (customerId == null || customerId.equals(claim.getCustomerId()))
+                && (status == null || status == claim.getStatus())
+                && (claimType == null || claimType.equals(claim.getClaimType()));
     }
 }
@@ -0,0 +1,158 @@
+package com.insurance.claims.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insurance.claims.metrics.ClaimMetrics;
+import com.insurance.claims.model.Claim;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Claim store that keeps only a bounded working set in memory, for claim sets larger
+ * than the heap, selected with {@code claims.store.type=cached}. Claims that are not
+ * resident are read through from a loader, normally the write-behind journal, which
+ * returns a claim's pending change if it has one and its database row otherwise.
+ * <p>
+ * Residency is decided by Caffeine's W-TinyLFU policy over an estimate of each claim's
+ * heap size: claims that are read or updated often stay, one-off reads of old claims
+ * are admitted only if they are accessed more than what they would displace. Concurrent
+ * misses on one ID share a single load. Loads run outside Caffeine's map locks, so a
+ * virtual thread waiting on the database never pins its carrier.
+ * <p>
+ * Iteration and {@link #size()} only cover resident claims; {@link #holdsAllClaims()}
+ * tells ClaimService to go through its indexes instead.
+ */
+public class CachingClaimStore implements ClaimStore {
+    
+    /** Estimated heap per claim besides its characters: object headers, boxed IDs, two LocalDateTimes, two Strings */
+    private static final int CLAIM_OVERHEAD_BYTES = 320;
+    
+    private final Cache<Long, Claim> cache;
+    private final LongFunction<Claim> loader;
+    private final ClaimMetrics claimMetrics;
+    private final ConcurrentHashMap<Long, CompletableFuture<Claim>> loading = new ConcurrentHashMap<>();
+    
+    /**
+     * @param loader reads a claim that is not resident, returning null if it does not exist
+     * @param maxBytes the approximate heap budget for resident claims
+     * @param claimMetrics metrics for hit ratio, evictions and load latency
+     */
+    public CachingClaimStore(LongFunction<Claim> loader, long maxBytes, ClaimMetrics claimMetrics) {
+        this(loader, maxBytes, claimMetrics, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * @param maintenanceExecutor runs evictions; tests pass a direct executor to make them synchronous
+     */
+    CachingClaimStore(LongFunction<Claim> loader, long maxBytes, ClaimMetrics claimMetrics, Executor maintenanceExecutor) {
+        this.loader = loader;
+        this.claimMetrics = claimMetrics;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, Claim claim) -> weigh(claim))
+                .executor(maintenanceExecutor)
+                .recordStats()
+                .build();
+        claimMetrics.bindClaimCache(cache);
+    }
+    
+    @Override
+    public Claim save(Claim claim) {
+        cache.put(claim.getId(), claim);
+        return claim;
+    }
+    
+    @Override
+    public Optional<Claim> findById(long claimId) {
+        Claim claim = cache.getIfPresent(claimId);
+        return Optional.ofNullable(claim != null ? claim : load(claimId));
+    }
+    
+    @Override
+    public Optional<Claim> findResident(long claimId) {
+        return Optional.ofNullable(cache.asMap().get(claimId));
+    }
+    
+    @Override
+    public Optional<Claim> update(long claimId, UnaryOperator<Claim> updater) {
+        while (true) {
+            if (findById(claimId).isEmpty()) {
+                return Optional.empty();
+            }
+            // Runs under the entry's lock, so updates to one claim are serialized
+            Claim updated = cache.asMap().computeIfPresent(claimId, (id, current) -> updater.apply(current));
+            if (updated != null) {
+                return Optional.of(updated);
+            }
+            // Evicted between the load and the update; its changes are in the loader, so load it again
+        }
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Claim> action) {
+        cache.asMap().values().forEach(action);
+    }
+    
+    @Override
+    public int size() {
+        return cache.asMap().size();
+    }
+    
+    @Override
+    public boolean holdsAllClaims() {
+        return false;
+    }
+    
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+    
+    private Claim load(long claimId) {
+        CompletableFuture<Claim> created = new CompletableFuture<>();
+        CompletableFuture<Claim> inFlight = loading.putIfAbsent(claimId, created);
+        if (inFlight != null) {
+            try {
+                return inFlight.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            // Another load may have finished between the miss and claiming this one
+            Claim claim = cache.asMap().get(claimId);
+            if (claim == null) {
+                long start = System.nanoTime();
+                claim = loader.apply(claimId);
+                claimMetrics.recordClaimCacheLoad(claim != null, System.nanoTime() - start);
+                if (claim != null) {
+                    Claim resident = cache.asMap().putIfAbsent(claimId, claim);
+                    claim = resident != null ? resident : claim;
+                }
+            }
+            created.complete(claim);
+            return claim;
+        } catch (RuntimeException ex) {
+            created.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(claimId, created);
+        }
+    }
+    
+    private static int weigh(Claim claim) {
+        return CLAIM_OVERHEAD_BYTES + length(claim.getClaimType()) + length(claim.getDescription());
+    }
+    
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,215 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent secondary indexes on customer ID, status and claim type.
+ * Each index maps a key to the sorted set of matching claim IDs, which lets
+ * searches resume from a cursor without scanning earlier results.
+ * The index may briefly lag the store during an update, so callers must
+ * re-check matches against the stored claim.
+ */
+public class ClaimIndex {
+    
+    private final ConcurrentHashMap<Long, NavigableSet<Long>> byCustomer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, NavigableSet<Long>> byType = new ConcurrentHashMap<>();
+    private final Map<ClaimStatus, NavigableSet<Long>> byStatus = new EnumMap<>(ClaimStatus.class);
+    private final AtomicInteger size = new AtomicInteger();
+    
+    public ClaimIndex() {
+        for (ClaimStatus status : ClaimStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+    }
+    
+    /**
+     * Indexes a newly stored claim
+     * 
+     * @param claim the claim to index
+     */
+    public void add(Claim claim) {
+        Long id = claim.getId();
+        size.incrementAndGet();
+        if (claim.getCustomerId() != null) {
+            byCustomer.computeIfAbsent(claim.getCustomerId(), key -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        if (claim.getClaimType() != null) {
+            byType.computeIfAbsent(claim.getClaimType(), key -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        if (claim.getStatus() != null) {
+            byStatus.get(claim.getStatus()).add(id);
+        }
+    }
+    
+    /**
+     * Moves a claim between status buckets. Must be called while holding the claim's
+     * update lock so moves for the same claim are applied in order. The claim is added
+     * to its new bucket before leaving the old one, so searches never miss it.
+     * 
+     * @param claimId the ID of the claim that changed status
+     * @param from the previous status
+     * @param to the new status
+     */
+    public void moveStatus(long claimId, ClaimStatus from, ClaimStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (to != null) {
+            byStatus.get(to).add(claimId);
+        }
+        if (from != null) {
+            byStatus.get(from).remove(claimId);
+        }
+    }
+    
+    /**
+     * Returns claim IDs greater than the cursor, in ascending order, that appear in
+     * every index selected by the non-null arguments. With no arguments every
+     * indexed claim is returned.
+     * 
+     * @param customerId customer filter, or null
+     * @param status status filter, or null
+     * @param claimType claim type filter, or null
+     * @param afterId exclusive lower bound, or null to start from the beginning
+     * @return a lazy iterator over matching claim IDs
+     */
+    public Iterator<Long> candidates(Long customerId, ClaimStatus status, String claimType, Long afterId) {
+        List<NavigableSet<Long>> filters = new ArrayList<>(3);
+        // Ordered from most to least selective; the first set drives the iteration
+        if (customerId != null) {
+            filters.add(byCustomer.getOrDefault(customerId, Collections.emptyNavigableSet()));
+        }
+        if (claimType != null) {
+            filters.add(byType.getOrDefault(claimType, Collections.emptyNavigableSet()));
+        }
+        if (status != null) {
+            filters.add(byStatus.get(status));
+        }
+        if (filters.isEmpty()) {
+            List<Iterator<Long>> buckets = new ArrayList<>();
+            for (NavigableSet<Long> bucket : byStatus.values()) {
+                buckets.add(tail(bucket, afterId).iterator());
+            }
+            return new MergingIterator(buckets);
+        }
+        Iterator<Long> driver = tail(filters.get(0), afterId).iterator();
+        List<NavigableSet<Long>> others = filters.subList(1, filters.size());
+        return new Iterator<>() {
+            private Long next = advance();
+            
+            private Long advance() {
+                while (driver.hasNext()) {
+                    Long id = driver.next();
+                    if (others.stream().allMatch(set -> set.contains(id))) {
+                        return id;
+                    }
+                }
+                return null;
+            }
+            
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+            
+            @Override
+            public Long next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Long current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+    
+    /**
+     * @return the number of indexed claims
+     */
+    public int size() {
+        return size.get();
+    }
+    
+    /**
+     * Removes every entry from the indexes
+     */
+    public void clear() {
+        size.set(0);
+        byCustomer.clear();
+        byType.clear();
+        byStatus.values().forEach(NavigableSet::clear);
+    }
+    
+    private static NavigableSet<Long> tail(NavigableSet<Long> set, Long afterId) {
+        return afterId == null ? set : set.tailSet(afterId, false);
+    }
+    
+    /**
+     * Ascending k-way merge of the status buckets. A claim moving between buckets
+     * can appear twice mid-move, so equal neighbours are collapsed.
+     */
+    private static final class MergingIterator implements Iterator<Long> {
+        
+        private final PriorityQueue<Head> heads = new PriorityQueue<>();
+        private Long last;
+        
+        MergingIterator(List<Iterator<Long>> sources) {
+            for (Iterator<Long> source : sources) {
+                if (source.hasNext()) {
+                    heads.add(new Head(source.next(), source));
+                }
+            }
+            skipDuplicates();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+        
+        @Override
+        public Long next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            last = head.value;
+            if (head.source.hasNext()) {
+                heads.add(new Head(head.source.next(), head.source));
+            }
+            skipDuplicates();
+            return last;
+        }
+        
+        private void skipDuplicates() {
+            while (last != null && !heads.isEmpty() && heads.peek().value <= last) {
+                Head head = heads.poll();
+                if (head.source.hasNext()) {
+                    heads.add(new Head(head.source.next(), head.source));
+                }
+            }
+        }
+        
+        private record Head(long value, Iterator<Long> source) implements Comparable<Head> {
+            @Override
+            public int compareTo(Head other) {
+                return Long.compare(value, other.value);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Claim counts by status, by claim type and by customer, kept up to date on the write
+ * path so that reading them does not walk the store. Counters are {@link LongAdder}s,
+ * which spread concurrent increments over striped cells instead of contending on one
+ * value; a read sums the cells without blocking writers.
+ * <p>
+ * Counts are exact once writes have finished. While they are in flight a read may
+ * include a claim in its new status before it has left the old one, as a status move
+ * increments the new bucket before decrementing the old.
+ */
+public class ClaimStatistics {
+    
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+    
+    private final LongAdder total = new LongAdder();
+    private final LongAdder[] byStatus = new LongAdder[STATUSES.length];
+    private final ConcurrentHashMap<String, LongAdder> byType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> byCustomer = new ConcurrentHashMap<>();
+    
+    public ClaimStatistics() {
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Counts a newly stored claim
+     * 
+     * @param claim the claim to count
+     */
+    public void add(Claim claim) {
+        total.increment();
+        if (claim.getStatus() != null) {
+            byStatus[claim.getStatus().ordinal()].increment();
+        }
+        if (claim.getClaimType() != null) {
+            byType.computeIfAbsent(claim.getClaimType(), key -> new LongAdder()).increment();
+        }
+        if (claim.getCustomerId() != null) {
+            byCustomer.computeIfAbsent(claim.getCustomerId(), key -> new LongAdder()).increment();
+        }
+    }
+    
+    /**
+     * Moves a claim's count between status buckets
+     * 
+     * @param from the previous status
+     * @param to the new status
+     */
+    public void moveStatus(ClaimStatus from, ClaimStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (to != null) {
+            byStatus[to.ordinal()].increment();
+        }
+        if (from != null) {
+            byStatus[from.ordinal()].decrement();
+        }
+    }
+    
+    /**
+     * @return the number of claims
+     */
+    public long total() {
+        return total.sum();
+    }
+    
+    /**
+     * @return the number of claims in each status, including statuses with none
+     */
+    public Map<ClaimStatus, Long> countsByStatus() {
+        Map<ClaimStatus, Long> counts = new EnumMap<>(ClaimStatus.class);
+        for (ClaimStatus status : STATUSES) {
+            counts.put(status, byStatus[status.ordinal()].sum());
+        }
+        return counts;
+    }
+    
+    /**
+     * @return the number of claims of each claim type, sorted by type
+     */
+    public Map<String, Long> countsByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        byType.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+    
+    /**
+     * @param customerId the customer ID
+     * @return the number of claims the customer has submitted
+     */
+    public long countByCustomer(long customerId) {
+        LongAdder count = byCustomer.get(customerId);
+        return count == null ? 0 : count.sum();
+    }
+    
+    /**
+     * Resets every count to zero
+     */
+    public void clear() {
+        total.reset();
+        for (LongAdder count : byStatus) {
+            count.reset();
+        }
+        byType.clear();
+        byCustomer.clear();
+    }
+}
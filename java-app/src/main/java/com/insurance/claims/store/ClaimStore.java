@@ -0,0 +1,97 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.model.Claim;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage abstraction behind ClaimService.
+ * Implementations must be safe for concurrent use by request threads.
+ */
+public interface ClaimStore {
+    
+    /**
+     * Stores a claim under its ID, replacing any existing claim with the same ID
+     * 
+     * @param claim the claim to store, with its ID already assigned
+     * @return the stored claim
+     */
+    Claim save(Claim claim);
+    
+    /**
+     * Stores a batch of claims. Implementations may override this to amortize
+     * locking across the batch.
+     * 
+     * @param claims the claims to store, with IDs already assigned
+     * @return the stored claims
+     */
+    default List<Claim> saveAll(List<Claim> claims) {
+        for (Claim claim : claims) {
+            save(claim);
+        }
+        return claims;
+    }
+    
+    /**
+     * Retrieves a claim by its ID
+     * 
+     * @param claimId the ID of the claim to retrieve
+     * @return an Optional containing the claim if found, or empty if not found
+     */
+    Optional<Claim> findById(long claimId);
+    
+    /**
+     * Retrieves a claim only if it is held in memory, without reading through to a
+     * backing store. Stores that keep every claim in memory need not override this.
+     * 
+     * @param claimId the ID of the claim to retrieve
+     * @return an Optional containing the claim if it is resident, or empty otherwise
+     */
+    default Optional<Claim> findResident(long claimId) {
+        return findById(claimId);
+    }
+    
+    /**
+     * Atomically applies an update to an existing claim. Updates to the same claim
+     * are serialized, so the updater never observes a partially applied change.
+     * 
+     * @param claimId the ID of the claim to update
+     * @param updater function receiving the current claim and returning the claim to store
+     * @return an Optional containing the updated claim if found, or empty if not found
+     */
+    Optional<Claim> update(long claimId, UnaryOperator<Claim> updater);
+    
+    /**
+     * Visits every claim without copying the store. Iteration is weakly consistent:
+     * claims stored or updated while it runs may or may not be seen, but no claim
+     * present for the whole iteration is skipped or visited twice.
+     * 
+     * @param action the action to apply to each claim
+     */
+    void forEach(Consumer<? super Claim> action);
+    
+    /**
+     * Returns the number of claims in the store
+     * 
+     * @return the count of claims
+     */
+    int size();
+    
+    /**
+     * Whether every claim is held by this store, so {@link #forEach} and {@link #size()}
+     * cover all claims. Caching stores that evict claims return false.
+     * 
+     * @return true if the store holds every claim
+     */
+    default boolean holdsAllClaims() {
+        return true;
+    }
+    
+    /**
+     * Removes all claims from the store
+     */
+    void clear();
+}
@@ -0,0 +1,459 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Memory-optimized claim store, selected with {@code claims.store.type=compact}.
+ * Claims are kept column-wise in primitive arrays inside open-addressing hash
+ * segments keyed by the raw long ID: timestamps as epoch nanos, status as its
+ * ordinal and claim type as a code into a shared dictionary. Claim types are
+ * free text, so the dictionary is capped; types beyond the cap are stored as
+ * strings. A {@link Claim} is only materialized when it is read, so callers
+ * always get a private copy.
+ */
+@Repository
+@ConditionalOnProperty(name = "claims.store.type", havingValue = "compact")
+public class CompactClaimStore implements ClaimStore {
+    
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+    private static final long EMPTY = 0L;
+    private static final long NULL_CUSTOMER = Long.MIN_VALUE;
+    private static final int NULL_TYPE = -1;
+    /** Type code of a claim whose type did not fit in the dictionary and is held as a string */
+    private static final int RAW_TYPE = -2;
+    static final int MAX_DICTIONARY_TYPES = 1024;
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+    
+    private final Segment[] segments;
+    /** Segments are picked by the top bits of the hash, slots within a segment by the low bits */
+    private final int segmentShift;
+    private final TypeDictionary types = new TypeDictionary();
+    
+    public CompactClaimStore() {
+        this(DEFAULT_SEGMENTS);
+    }
+    
+    /**
+     * @param segments the number of independently locked segments, rounded up to a power of two
+     */
+    public CompactClaimStore(int segments) {
+        int size = Integer.highestOneBit(Math.max(1, segments - 1)) << 1;
+        this.segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(size);
+    }
+    
+    @Override
+    public Claim save(Claim claim) {
+        long id = requireKey(claim.getId());
+        Segment segment = segmentFor(id);
+        long stamp = segment.lock.writeLock();
+        try {
+            segment.put(id, claim, types);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+        return claim;
+    }
+    
+    @Override
+    public List<Claim> saveAll(List<Claim> claims) {
+        // Group by segment so each segment lock is taken once per batch
+        List<List<Claim>> bySegment = new ArrayList<>(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            bySegment.add(new ArrayList<>());
+        }
+        for (Claim claim : claims) {
+            bySegment.get(segmentIndex(requireKey(claim.getId()))).add(claim);
+        }
+        for (int i = 0; i < segments.length; i++) {
+            List<Claim> batch = bySegment.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            Segment segment = segments[i];
+            long stamp = segment.lock.writeLock();
+            try {
+                for (Claim claim : batch) {
+                    segment.put(claim.getId(), claim, types);
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+        return claims;
+    }
+    
+    @Override
+    public Optional<Claim> findById(long claimId) {
+        if (claimId == EMPTY) {
+            return Optional.empty();
+        }
+        Segment segment = segmentFor(claimId);
+        long stamp = segment.lock.readLock();
+        try {
+            int slot = segment.find(claimId);
+            return slot < 0 ? Optional.empty() : Optional.of(segment.materialize(slot, types));
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public Optional<Claim> update(long claimId, UnaryOperator<Claim> updater) {
+        if (claimId == EMPTY) {
+            return Optional.empty();
+        }
+        Segment segment = segmentFor(claimId);
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = segment.find(claimId);
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            Claim updated = updater.apply(segment.materialize(slot, types));
+            segment.write(slot, updated, types);
+            return Optional.of(updated);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Claim> action) {
+        for (Segment segment : segments) {
+            // Snapshot only the keys so the lock is not held while the caller does I/O;
+            // each claim is then materialized one at a time
+            long[] ids;
+            long stamp = segment.lock.readLock();
+            try {
+                ids = segment.keys();
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+            for (long id : ids) {
+                findById(id).ifPresent(action);
+            }
+        }
+    }
+    
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+    
+    @Override
+    public void clear() {
+        // Every segment is locked at once, so no write can encode a type with the old dictionary
+        long[] stamps = new long[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            stamps[i] = segments[i].lock.writeLock();
+        }
+        try {
+            for (Segment segment : segments) {
+                segment.reset();
+            }
+            types.reset();
+        } finally {
+            for (int i = 0; i < segments.length; i++) {
+                segments[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+    
+    /**
+     * @return the number of claim types in the dictionary
+     */
+    int dictionarySize() {
+        return types.size();
+    }
+    
+    private Segment segmentFor(long claimId) {
+        return segments[segmentIndex(claimId)];
+    }
+    
+    private int segmentIndex(long claimId) {
+        return (int) (mix(claimId) >>> segmentShift);
+    }
+    
+    /**
+     * @return the mean distance of stored keys from their home slot, for checking the hash spread
+     */
+    double averageProbeLength() {
+        long keys = 0;
+        long distance = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                int mask = segment.keys.length - 1;
+                for (int slot = 0; slot < segment.keys.length; slot++) {
+                    long key = segment.keys[slot];
+                    if (key != EMPTY) {
+                        keys++;
+                        distance += (slot - ((int) mix(key) & mask)) & mask;
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return keys == 0 ? 0 : (double) distance / keys;
+    }
+    
+    private static long requireKey(Long id) {
+        if (id == null || id == EMPTY) {
+            throw new IllegalArgumentException("Compact store requires a non-zero claim ID");
+        }
+        return id;
+    }
+    
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+    
+    private static long toEpochNanos(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+    
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        if (nanos == Long.MIN_VALUE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+    
+    /**
+     * Open-addressing table with linear probing; every column is indexed by slot.
+     */
+    private static final class Segment {
+        
+        final StampedLock lock = new StampedLock();
+        long[] keys;
+        long[] customerIds;
+        long[] createdAt;
+        long[] updatedAt;
+        byte[] statuses;
+        int[] versions;
+        int[] typeCodes;
+        /** Types that are not in the dictionary, by slot; null until the segment has one */
+        String[] rawTypes;
+        String[] descriptions;
+        int size;
+        
+        Segment() {
+            allocate(INITIAL_SEGMENT_CAPACITY);
+        }
+        
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = (int) mix(key) & mask; ; slot = (slot + 1) & mask) {
+                long candidate = keys[slot];
+                if (candidate == key) {
+                    return slot;
+                }
+                if (candidate == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+        
+        void put(long key, Claim claim, TypeDictionary types) {
+            int slot = find(key);
+            if (slot < 0) {
+                if ((size + 1) * 4L > keys.length * 3L) {
+                    resize(keys.length << 1);
+                }
+                slot = freeSlot(key);
+                keys[slot] = key;
+                size++;
+            }
+            write(slot, claim, types);
+        }
+        
+        void write(int slot, Claim claim, TypeDictionary types) {
+            Long customerId = claim.getCustomerId();
+            customerIds[slot] = customerId == null ? NULL_CUSTOMER : customerId;
+            createdAt[slot] = toEpochNanos(claim.getCreatedAt());
+            updatedAt[slot] = toEpochNanos(claim.getUpdatedAt());
+            statuses[slot] = claim.getStatus() == null ? -1 : (byte) claim.getStatus().ordinal();
+            versions[slot] = claim.getVersion();
+            int typeCode = types.encode(claim.getClaimType());
+            typeCodes[slot] = typeCode;
+            if (typeCode == RAW_TYPE) {
+                if (rawTypes == null) {
+                    rawTypes = new String[keys.length];
+                }
+                rawTypes[slot] = claim.getClaimType();
+            } else if (rawTypes != null) {
+                rawTypes[slot] = null;
+            }
+            descriptions[slot] = claim.getDescription();
+        }
+        
+        Claim materialize(int slot, TypeDictionary types) {
+            return new Claim(
+                    keys[slot],
+                    customerIds[slot] == NULL_CUSTOMER ? null : customerIds[slot],
+                    typeCodes[slot] == RAW_TYPE ? rawTypes[slot] : types.decode(typeCodes[slot]),
+                    descriptions[slot],
+                    statuses[slot] < 0 ? null : STATUSES[statuses[slot]],
+                    fromEpochNanos(createdAt[slot]),
+                    fromEpochNanos(updatedAt[slot]),
+                    versions[slot]);
+        }
+        
+        long[] keys() {
+            long[] result = new long[size];
+            int n = 0;
+            for (long key : keys) {
+                if (key != EMPTY) {
+                    result[n++] = key;
+                }
+            }
+            return result;
+        }
+        
+        void reset() {
+            allocate(INITIAL_SEGMENT_CAPACITY);
+            size = 0;
+        }
+        
+        private int freeSlot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+        
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            customerIds = new long[capacity];
+            createdAt = new long[capacity];
+            updatedAt = new long[capacity];
+            statuses = new byte[capacity];
+            versions = new int[capacity];
+            typeCodes = new int[capacity];
+            rawTypes = null;
+            descriptions = new String[capacity];
+        }
+        
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldCustomerIds = customerIds;
+            long[] oldCreatedAt = createdAt;
+            long[] oldUpdatedAt = updatedAt;
+            byte[] oldStatuses = statuses;
+            int[] oldVersions = versions;
+            int[] oldTypeCodes = typeCodes;
+            String[] oldRawTypes = rawTypes;
+            String[] oldDescriptions = descriptions;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = freeSlot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    customerIds[slot] = oldCustomerIds[i];
+                    createdAt[slot] = oldCreatedAt[i];
+                    updatedAt[slot] = oldUpdatedAt[i];
+                    statuses[slot] = oldStatuses[i];
+                    versions[slot] = oldVersions[i];
+                    typeCodes[slot] = oldTypeCodes[i];
+                    if (oldRawTypes != null && oldRawTypes[i] != null) {
+                        if (rawTypes == null) {
+                            rawTypes = new String[capacity];
+                        }
+                        rawTypes[slot] = oldRawTypes[i];
+                    }
+                    descriptions[slot] = oldDescriptions[i];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Dictionary encoding for claim types; the set of distinct types is usually small,
+     * so each claim only pays for an int code. The names array grows by doubling, and
+     * once {@value #MAX_DICTIONARY_TYPES} types are registered new ones are not added.
+     */
+    private static final class TypeDictionary {
+        
+        private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[16];
+        private int size;
+        
+        /**
+         * @return the type's code, {@link #NULL_TYPE} for null, or {@link #RAW_TYPE} if the dictionary is full
+         */
+        int encode(String type) {
+            if (type == null) {
+                return NULL_TYPE;
+            }
+            Integer code = codes.get(type);
+            return code != null ? code : register(type);
+        }
+        
+        String decode(int code) {
+            return code == NULL_TYPE ? null : names[code];
+        }
+        
+        synchronized int size() {
+            return size;
+        }
+        
+        synchronized void reset() {
+            codes.clear();
+            names = new String[16];
+            size = 0;
+        }
+        
+        private synchronized int register(String type) {
+            Integer code = codes.get(type);
+            if (code != null) {
+                return code;
+            }
+            if (size == MAX_DICTIONARY_TYPES) {
+                return RAW_TYPE;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            // Published to decoders through the code, which only reaches them via the map or a segment lock
+            names[size] = type;
+            codes.put(type, size);
+            return size++;
+        }
+    }
+}
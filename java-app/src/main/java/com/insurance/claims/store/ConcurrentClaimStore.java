@@ -0,0 +1,105 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.model.Claim;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Default claim store backed by a ConcurrentHashMap.
+ * Reads are lock-free; updates take one of a fixed set of striped locks chosen by
+ * claim ID, so writers to different claims rarely contend.
+ */
+@Repository
+@ConditionalOnProperty(name = "claims.store.type", havingValue = "concurrent", matchIfMissing = true)
+public class ConcurrentClaimStore implements ClaimStore {
+    
+    private static final int DEFAULT_STRIPES = 64;
+    
+    private final ConcurrentHashMap<Long, Claim> claims = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks;
+    private final int lockMask;
+    
+    public ConcurrentClaimStore() {
+        this(DEFAULT_STRIPES);
+    }
+    
+    /**
+     * @param stripes the number of update locks, rounded up to a power of two
+     */
+    public ConcurrentClaimStore(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.lockMask = size - 1;
+    }
+    
+    @Override
+    public Claim save(Claim claim) {
+        claims.put(claim.getId(), claim);
+        return claim;
+    }
+    
+    @Override
+    public List<Claim> saveAll(List<Claim> claims) {
+        Map<Long, Claim> batch = new HashMap<>(claims.size() * 4 / 3 + 1);
+        for (Claim claim : claims) {
+            batch.put(claim.getId(), claim);
+        }
+        // putAll pre-sizes the table once instead of resizing repeatedly during the batch
+        this.claims.putAll(batch);
+        return claims;
+    }
+    
+    @Override
+    public Optional<Claim> findById(long claimId) {
+        return Optional.ofNullable(claims.get(claimId));
+    }
+    
+    @Override
+    public Optional<Claim> update(long claimId, UnaryOperator<Claim> updater) {
+        ReentrantLock lock = lockFor(claimId);
+        lock.lock();
+        try {
+            Claim current = claims.get(claimId);
+            if (current == null) {
+                return Optional.empty();
+            }
+            Claim updated = updater.apply(current);
+            claims.put(claimId, updated);
+            return Optional.of(updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Claim> action) {
+        claims.values().forEach(action);
+    }
+    
+    @Override
+    public int size() {
+        return claims.size();
+    }
+    
+    @Override
+    public void clear() {
+        claims.clear();
+    }
+    
+    private ReentrantLock lockFor(long claimId) {
+        int h = Long.hashCode(claimId);
+        return locks[(h ^ (h >>> 16)) & lockMask];
+    }
+}
@@ -0,0 +1,102 @@
+package com.insurance.claims.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.claims.admission.AdmissionControlFilter.RequestClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+    
+    private SimpleMeterRegistry registry;
+    private AdmissionControlFilter filter;
+    
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(
+                ConcurrencyLimiter.fixed(4), ConcurrencyLimiter.fixed(2), ConcurrencyLimiter.fixed(1),
+                Duration.ofSeconds(2), new ObjectMapper().registerModule(new JavaTimeModule()));
+        new AdmissionMetrics(filter).bindTo(registry);
+    }
+    
+    @Test
+    public void testClassify_ByMethodAndPath() {
+        assertEquals(RequestClass.READ, AdmissionControlFilter.classify("GET", "/claims/42"));
+        assertEquals(RequestClass.READ, AdmissionControlFilter.classify("GET", "/claims/search"));
+        assertEquals(RequestClass.WRITE, AdmissionControlFilter.classify("POST", "/claims"));
+        assertEquals(RequestClass.WRITE, AdmissionControlFilter.classify("PATCH", "/claims/42/status"));
+        assertEquals(RequestClass.HEALTH, AdmissionControlFilter.classify("GET", "/claims/health"));
+        assertNull(AdmissionControlFilter.classify("GET", "/claims/events"));
+        assertNull(AdmissionControlFilter.classify("GET", "/claims/export"));
+    }
+    
+    @Test
+    public void testWritesAtLimit_RejectedWith429WhileReadsAndHealthPass() throws Exception {
+        fill(filter.limiterFor(RequestClass.WRITE));
+        // Filling the limiter ends with one turned-away acquire of its own
+        double rejectedBefore = rejectedWrites();
+        
+        MockHttpServletResponse write = perform("POST", "/claims");
+        MockHttpServletResponse read = perform("GET", "/claims/1");
+        MockHttpServletResponse health = perform("GET", "/claims/health");
+        
+        assertEquals(429, write.getStatus());
+        long retryAfter = Long.parseLong(write.getHeader("Retry-After"));
+        assertTrue(retryAfter >= 2 && retryAfter <= 4, "Retry-After " + retryAfter);
+        assertTrue(write.getContentAsString().contains("Too many concurrent write requests"));
+        assertEquals(200, read.getStatus());
+        assertEquals(200, health.getStatus());
+        assertEquals(1.0, rejectedWrites() - rejectedBefore);
+        assertEquals(2, filter.limiterFor(RequestClass.WRITE).getInFlight());
+    }
+    
+    @Test
+    public void testReadsAndHealthAtLimit_RejectedWith503() throws Exception {
+        fill(filter.limiterFor(RequestClass.READ));
+        fill(filter.limiterFor(RequestClass.HEALTH));
+        
+        assertEquals(503, perform("GET", "/claims/1").getStatus());
+        assertEquals(503, perform("GET", "/claims/health").getStatus());
+        assertNotNull(perform("GET", "/claims/1").getHeader("Retry-After"));
+        // Streams are not counted against the read limit
+        assertEquals(200, perform("GET", "/claims/export").getStatus());
+        assertEquals(200, perform("POST", "/claims").getStatus());
+    }
+    
+    @Test
+    public void testAdmittedRequest_ReleasesSlot() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("POST", "/claims").getStatus());
+        }
+        
+        assertEquals(0, filter.limiterFor(RequestClass.WRITE).getInFlight());
+        assertEquals(2.0, registry.get("claims.admission.limit").tag("class", "write").gauge().value());
+    }
+    
+    private MockHttpServletResponse perform(String method, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+    
+    private double rejectedWrites() {
+        return registry.get("claims.admission.rejected").tag("class", "write").functionCounter().count();
+    }
+    
+    private static void fill(ConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire() > 0) {
+            // Hold every slot, as requests still being handled would
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.insurance.claims.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+    
+    private static final long MILLISECOND = 1_000_000L;
+    
+    @Test
+    public void testFixed_RejectsAtLimitUntilReleased() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.fixed(2);
+        
+        assertEquals(1, limiter.tryAcquire());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        
+        limiter.release(1000 * MILLISECOND, 2);
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(2, limiter.getLimit());
+        assertEquals(1, limiter.getRejected());
+    }
+    
+    @Test
+    public void testAdaptive_SteadyLatencyAtFullUse_GrowsLimitUpToTwiceTheUse() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(20, 4, 100);
+        
+        sample(limiter, 200, MILLISECOND, 20);
+        
+        // Growth stops once less than half of the limit is in use
+        assertEquals(40, limiter.getLimit(), 1);
+        
+        sample(limiter, 500, MILLISECOND, 100);
+        assertEquals(100, limiter.getLimit());
+    }
+    
+    @Test
+    public void testAdaptive_LowUse_DoesNotGrowLimit() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(20, 4, 100);
+        
+        sample(limiter, 200, MILLISECOND, 3);
+        
+        assertEquals(20, limiter.getLimit());
+    }
+    
+    @Test
+    public void testAdaptive_RisingLatency_ShrinksLimitThenRecovers() {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.adaptive(50, 4, 100);
+        sample(limiter, 100, MILLISECOND, 1);
+        
+        // Requests start queueing: latency goes from 1 ms to 10 ms
+        sample(limiter, 50, 10 * MILLISECOND, 50);
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < 20, "limit " + shrunk);
+        sample(limiter, 200, 10 * MILLISECOND, 50);
+        assertTrue(limiter.getLimit() >= 4);
+        
+        // Once the queue drains, latency falls back and the limit grows again
+        sample(limiter, 300, MILLISECOND, 100);
+        assertTrue(limiter.getLimit() > shrunk, "limit " + limiter.getLimit());
+    }
+    
+    @Test
+    public void testAdaptive_InvalidBounds_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.adaptive(10, 20, 100));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.adaptive(10, 0, 100));
+    }
+    
+    private static void sample(ConcurrencyLimiter limiter, int samples, long latencyNanos, int inFlight) {
+        for (int i = 0; i < samples; i++) {
+            assertTrue(limiter.tryAcquire() > 0);
+            limiter.release(latencyNanos, inFlight);
+        }
+    }
+}
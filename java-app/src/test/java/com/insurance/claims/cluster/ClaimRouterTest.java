@@ -0,0 +1,143 @@
+package com.insurance.claims.cluster;
+
+import com.insurance.claims.cluster.ClaimRouter.Routing;
+import com.insurance.claims.id.ClaimIdGenerator;
+import com.insurance.claims.id.SequentialClaimIdGenerator;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClaimRouterTest {
+    
+    private static final String SELF = "http://localhost:1";
+    
+    private HttpServer peer;
+    private String peerUrl;
+    private final AtomicReference<String> forwardedBy = new AtomicReference<>();
+    private final AtomicReference<String> forwardedBody = new AtomicReference<>();
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/api/claims", exchange -> {
+            forwardedBy.set(exchange.getRequestHeaders().getFirst(ClaimRouter.FORWARDED_BY));
+            forwardedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] body = ("{\"path\":\"" + exchange.getRequestURI() + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, "\"1-abc.0\"");
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        peer.start();
+        peerUrl = "http://localhost:" + peer.getAddress().getPort();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        peer.stop(0);
+    }
+    
+    @Test
+    public void testRoute_RemoteClaim_ForwardsAndRelaysResponse() {
+        ClaimRouter router = router(Routing.FORWARD);
+        long remoteId = firstIdOwnedBy(router, peerUrl);
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/api/claims/" + remoteId + "/status");
+        request.setQueryString("verbose=true");
+        
+        Optional<ResponseEntity<byte[]>> routed = router.route(remoteId, request, "{\"status\":\"CLOSED\"}".getBytes(StandardCharsets.UTF_8));
+        
+        assertTrue(routed.isPresent());
+        assertEquals(HttpStatus.OK, routed.get().getStatusCode());
+        assertEquals("\"1-abc.0\"", routed.get().getHeaders().getETag());
+        assertEquals("{\"path\":\"/api/claims/" + remoteId + "/status?verbose=true\"}",
+                new String(routed.get().getBody(), StandardCharsets.UTF_8));
+        assertEquals(SELF, forwardedBy.get());
+        assertEquals("{\"status\":\"CLOSED\"}", forwardedBody.get());
+    }
+    
+    @Test
+    public void testRoute_RedirectMode_ReturnsTemporaryRedirectToOwner() {
+        ClaimRouter router = router(Routing.REDIRECT);
+        long remoteId = firstIdOwnedBy(router, peerUrl);
+        
+        Optional<ResponseEntity<byte[]>> routed = router.route(remoteId, new MockHttpServletRequest("GET", "/api/claims/" + remoteId), null);
+        
+        assertTrue(routed.isPresent());
+        assertEquals(HttpStatus.TEMPORARY_REDIRECT, routed.get().getStatusCode());
+        assertEquals(peerUrl + "/api/claims/" + remoteId, routed.get().getHeaders().getLocation().toString());
+        assertNull(forwardedBy.get());
+    }
+    
+    @Test
+    public void testRoute_LocalOrAlreadyForwarded_ServedLocally() {
+        ClaimRouter router = router(Routing.FORWARD);
+        long localId = firstIdOwnedBy(router, SELF);
+        long remoteId = firstIdOwnedBy(router, peerUrl);
+        MockHttpServletRequest forwarded = new MockHttpServletRequest("GET", "/api/claims/" + remoteId);
+        forwarded.addHeader(ClaimRouter.FORWARDED_BY, peerUrl);
+        
+        assertTrue(router.route(localId, new MockHttpServletRequest("GET", "/api/claims/" + localId), null).isEmpty());
+        assertTrue(router.route(remoteId, forwarded, null).isEmpty());
+    }
+    
+    @Test
+    public void testOwnedIds_OnlyReturnsLocallyOwnedIds() {
+        ClaimRouter router = router(Routing.FORWARD);
+        ClaimIdGenerator generator = router.ownedIds(new SequentialClaimIdGenerator());
+        
+        long previous = 0;
+        for (int i = 0; i < 1000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertTrue(router.isLocal(id));
+            previous = id;
+        }
+        long[] batch = generator.nextIds(500);
+        for (long id : batch) {
+            assertTrue(id > previous);
+            assertTrue(router.isLocal(id));
+            previous = id;
+        }
+    }
+    
+    @Test
+    public void testDisabled_EveryClaimIsLocal() {
+        ClaimRouter router = new ClaimRouter(false, "", new String[0], 128, Routing.FORWARD, Duration.ofSeconds(1));
+        ClaimIdGenerator generator = new SequentialClaimIdGenerator();
+        
+        assertTrue(LongStream.rangeClosed(1, 1000).allMatch(router::isLocal));
+        assertSame(generator, router.ownedIds(generator));
+    }
+    
+    @Test
+    public void testConstructor_SelfNotAPeer_Rejected() {
+        assertThrows(IllegalStateException.class, () -> new ClaimRouter(
+                true, "http://localhost:9", new String[] {SELF, peerUrl}, 128, Routing.FORWARD, Duration.ofSeconds(1)));
+    }
+    
+    private ClaimRouter router(Routing routing) {
+        return new ClaimRouter(true, SELF, new String[] {SELF, peerUrl + "/"}, 128, routing, Duration.ofSeconds(5));
+    }
+    
+    private static long firstIdOwnedBy(ClaimRouter router, String owner) {
+        return LongStream.iterate(1, id -> id + 1).filter(id -> router.ownerOf(id).equals(owner)).findFirst().getAsLong();
+    }
+}
@@ -0,0 +1,81 @@
+package com.insurance.claims.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+    
+    private static final int KEYS = 100_000;
+    private static final List<String> NODES = List.of("http://claims-0:8080", "http://claims-1:8080", "http://claims-2:8080");
+    
+    @Test
+    public void testOwnerOf_SameNodesInAnyOrder_SameOwners() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 128);
+        
+        for (long id = 1; id <= KEYS; id++) {
+            assertEquals(ring.ownerOf(id), reordered.ownerOf(id));
+        }
+    }
+    
+    @Test
+    public void testOwnerOf_SequentialIds_SpreadEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        
+        Map<String, Integer> owned = new HashMap<>();
+        for (long id = 1; id <= KEYS; id++) {
+            owned.merge(ring.ownerOf(id), 1, Integer::sum);
+        }
+        
+        assertEquals(NODES.size(), owned.size());
+        double fairShare = (double) KEYS / NODES.size();
+        owned.values().forEach(count -> assertEquals(fairShare, count, fairShare * 0.25));
+    }
+    
+    @Test
+    public void testWithNode_OnlyKeysTakenByNewNodeMove() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        String joined = "http://claims-3:8080";
+        ConsistentHashRing grown = ring.withNode(joined);
+        
+        int moved = 0;
+        for (long id = 1; id <= KEYS; id++) {
+            String before = ring.ownerOf(id);
+            String after = grown.ownerOf(id);
+            if (!before.equals(after)) {
+                assertEquals(joined, after);
+                moved++;
+            }
+        }
+        
+        // About a quarter of the keys move, all of them to the new node
+        assertEquals(KEYS / 4.0, moved, KEYS * 0.08);
+    }
+    
+    @Test
+    public void testWithoutNode_OnlyKeysOfRemovedNodeMove() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 128);
+        String left = NODES.get(1);
+        ConsistentHashRing shrunk = ring.withoutNode(left);
+        
+        assertFalse(shrunk.contains(left));
+        for (long id = 1; id <= KEYS; id++) {
+            String before = ring.ownerOf(id);
+            if (!before.equals(left)) {
+                assertEquals(before, shrunk.ownerOf(id));
+            } else {
+                assertNotEquals(left, shrunk.ownerOf(id));
+            }
+        }
+    }
+    
+    @Test
+    public void testConstructor_NoNodes_Rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+    }
+}
@@ -1,21 +1,42 @@
 package com.insurance.claims.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.claims.cluster.ClaimRouter;
+import com.insurance.claims.dto.ClaimPage;
 import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.dto.ClaimStats;
+import com.insurance.claims.dto.CustomerClaimStats;
+import com.insurance.claims.dto.DescriptionSearchPage;
+import com.insurance.claims.events.ClaimEventBroker;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.exception.InvalidStatusTransitionException;
+import com.insurance.claims.json.ClaimJsonConfiguration;
 import com.insurance.claims.model.Claim;
 import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.search.DescriptionQuery;
+import com.insurance.claims.service.ClaimExportService;
 import com.insurance.claims.service.ClaimService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +50,15 @@ public class ClaimControllerTest {
     @MockBean
     private ClaimService claimService;
     
+    @MockBean
+    private ClaimExportService claimExportService;
+    
+    @MockBean
+    private ClaimEventBroker claimEventBroker;
+    
+    @MockBean
+    private ClaimRouter claimRouter;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -52,16 +82,286 @@ public class ClaimControllerTest {
                 .andExpect(status().isBadRequest());
     }
     
+    @Test
+    public void testSubmitClaim_DescriptionLongerThanStored_ReturnsBadRequest() throws Exception {
+        ClaimRequest request = new ClaimRequest(12345L, "Auto", "x".repeat(4001));
+        
+        mockMvc.perform(post("/claims")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void testSubmitClaimBatch_MixedItems_ReturnsPerItemResults() throws Exception {
+        Claim created = new Claim(10L, 12345L, "Auto", "Car accident");
+        when(claimService.createClaims(any())).thenReturn(List.of(created));
+        List<ClaimRequest> batch = List.of(
+                new ClaimRequest(12345L, "Auto", "Car accident"),
+                new ClaimRequest(null, "Home", ""));
+        
+        mockMvc.perform(post("/claims/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[0].claim.id").value(10))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].error.validationErrors.customerId").value("Customer ID is required"));
+    }
+    
+    @Test
+    public void testSubmitClaimBatch_ItemWithWrongType_ReportedPerItem() throws Exception {
+        Claim first = new Claim(10L, 12345L, "Auto", "Car accident");
+        Claim second = new Claim(11L, 67890L, "Home", "Fire damage");
+        when(claimService.createClaims(any())).thenReturn(List.of(first, second));
+        String body = "[{\"customerId\":12345,\"claimType\":\"Auto\",\"description\":\"Car accident\"},"
+                + "{\"customerId\":\"not a number\",\"claimType\":\"Auto\",\"description\":\"Dent\"},"
+                + "{\"customerId\":67890,\"claimType\":\"Home\",\"description\":\"Fire damage\"}]";
+        
+        mockMvc.perform(post("/claims/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].error.error").value("Malformed request"))
+                .andExpect(jsonPath("$.results[2].claim.id").value(11));
+    }
+    
+    @Test
+    public void testSubmitClaimBatch_OverLimit_RejectedBeforeRestIsRead() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i <= 10000; i++) {
+            body.append("{\"customerId\":12345,\"claimType\":\"Auto\",\"description\":\"Car accident\"},");
+        }
+        // Truncated after the item that crosses the limit; a full read would fail as malformed instead
+        body.append("{\"customerId\":");
+        
+        mockMvc.perform(post("/claims/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()))
+                .andExpect(status().isPayloadTooLarge());
+        verify(claimService, never()).createClaims(any());
+    }
+    
+    @Test
+    public void testSubmitClaimBatch_NotAnArray_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/claims/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":12345}"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void testSubmitClaimBatch_Ndjson_ReportsMalformedLine() throws Exception {
+        Claim first = new Claim(10L, 12345L, "Auto", "Car accident");
+        Claim second = new Claim(11L, 67890L, "Home", "Fire damage");
+        when(claimService.createClaims(any())).thenReturn(List.of(first, second));
+        String body = "{\"customerId\":12345,\"claimType\":\"Auto\",\"description\":\"Car accident\"}\n"
+                + "{not json}\n"
+                + "{\"customerId\":67890,\"claimType\":\"Home\",\"description\":\"Fire damage\"}\n";
+        
+        mockMvc.perform(post("/claims/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.accepted").value(2))
+                .andExpect(jsonPath("$.results[1].error.error").value("Malformed request"))
+                .andExpect(jsonPath("$.results[2].claim.id").value(11));
+    }
+    
     @Test
     public void testGetClaim_ExistingId_ReturnsOk() throws Exception {
         // Mock the service to return a claim
-        Claim mockClaim = new Claim(12345L, "Auto", "Test claim");
-        mockClaim.setId(1L);
-        mockClaim.setStatus(ClaimStatus.SUBMITTED);
+        Claim mockClaim = new Claim(1L, 12345L, "Auto", "Test claim");
         when(claimService.getClaimById(eq(1L))).thenReturn(Optional.of(mockClaim));
         
         mockMvc.perform(get("/claims/1"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+    
+    @Test
+    public void testGetClaim_OwnedByAnotherReplica_ReturnsRoutedResponse() throws Exception {
+        when(claimRouter.route(eq(7L), any(), any())).thenReturn(Optional.of(
+                ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT).location(URI.create("http://claims-1:8080/api/claims/7")).build()));
+        
+        mockMvc.perform(get("/claims/7"))
+                .andExpect(status().isTemporaryRedirect())
+                .andExpect(header().string("Location", "http://claims-1:8080/api/claims/7"));
+        verify(claimService, never()).getClaimById(any());
+    }
+    
+    @Test
+    public void testGetClaim_MatchingETag_ReturnsNotModifiedUntilStatusChanges() throws Exception {
+        Claim mockClaim = new Claim(1L, 12345L, "Auto", "Test claim");
+        when(claimService.getClaimById(eq(1L))).thenReturn(Optional.of(mockClaim));
+        String etag = mockMvc.perform(get("/claims/1"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        mockMvc.perform(get("/claims/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        
+        when(claimService.getClaimById(eq(1L)))
+                .thenReturn(Optional.of(mockClaim.withStatus(ClaimStatus.UNDER_REVIEW, LocalDateTime.now())));
+        mockMvc.perform(get("/claims/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UNDER_REVIEW"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+    
+    @Test
+    public void testGetClaim_AcceptCbor_ReturnsCborWithItsOwnETag() throws Exception {
+        Claim mockClaim = new Claim(1L, 12345L, "Auto", "Test claim");
+        when(claimService.getClaimById(eq(1L))).thenReturn(Optional.of(mockClaim));
+        String jsonETag = mockMvc.perform(get("/claims/1"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        byte[] body = mockMvc.perform(get("/claims/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", jsonETag.substring(0, jsonETag.length() - 1) + "+cbor\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        
+        Claim decoded = ClaimJsonConfiguration.cborMapper(objectMapper).readValue(body, Claim.class);
+        assertEquals(1L, decoded.getId());
+        assertEquals("Test claim", decoded.getDescription());
+        assertEquals(mockClaim.getUpdatedAt(), decoded.getUpdatedAt());
+    }
+    
+    @Test
+    public void testPrefersCbor_FollowsAcceptQualityAndSpecificity() {
+        assertFalse(ClaimController.prefersCbor(null));
+        assertFalse(ClaimController.prefersCbor("*/*"));
+        assertFalse(ClaimController.prefersCbor("application/json, application/cbor"));
+        assertFalse(ClaimController.prefersCbor("application/cbor;q=0.5, application/json"));
+        assertTrue(ClaimController.prefersCbor("application/cbor"));
+        assertTrue(ClaimController.prefersCbor("application/cbor, */*"));
+        assertTrue(ClaimController.prefersCbor("application/json;q=0.5, application/cbor"));
+    }
+    
+    @Test
+    public void testSearchClaims_ByCustomer_ReturnsPage() throws Exception {
+        Claim mockClaim = new Claim(1L, 12345L, "Auto", "Test claim");
+        when(claimService.searchClaims(eq(12345L), eq(ClaimStatus.SUBMITTED), eq(null), eq(null), eq(50)))
+                .thenReturn(new ClaimPage(List.of(mockClaim), null));
+        
+        mockMvc.perform(get("/claims").param("customerId", "12345").param("status", "SUBMITTED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.claims[0].id").value(1));
+    }
+    
+    @Test
+    public void testSearchDescriptions_ReturnsRankedPage() throws Exception {
+        Claim mockClaim = new Claim(1L, 12345L, "Home", "Burst pipe in the kitchen");
+        when(claimService.searchDescriptions(any(DescriptionQuery.class), eq(20), eq(20)))
+                .thenReturn(new DescriptionSearchPage(List.of(mockClaim), 41, 40));
+        
+        mockMvc.perform(get("/claims/search").param("q", "kitchen \"burst pipe\"").param("offset", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.claims[0].id").value(1))
+                .andExpect(jsonPath("$.totalMatches").value(41))
+                .andExpect(jsonPath("$.nextOffset").value(40));
+    }
+    
+    @Test
+    public void testSearchDescriptions_NoWordsOrBeyondResultLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/claims/search").param("q", "\"?!\""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/claims/search").param("q", "kitchen").param("offset", "990"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    public void testGetClaimStats_ReturnsCounts() throws Exception {
+        when(claimService.getClaimStats()).thenReturn(new ClaimStats(3,
+                Map.of(ClaimStatus.SUBMITTED, 2L, ClaimStatus.APPROVED, 1L), Map.of("Auto", 3L)));
+        when(claimService.getCustomerClaimStats(12345L)).thenReturn(new CustomerClaimStats(12345L, 2));
+        
+        mockMvc.perform(get("/claims/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.SUBMITTED").value(2))
+                .andExpect(jsonPath("$.byType.Auto").value(3));
+        mockMvc.perform(get("/claims/stats/customers/12345"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2));
+    }
+    
+    @Test
+    public void testChangeClaimStatus_MatchingIfMatch_ReturnsUpdatedClaim() throws Exception {
+        Claim updated = new Claim(1L, 12345L, "Auto", "Test claim").withStatus(ClaimStatus.UNDER_REVIEW, LocalDateTime.now());
+        when(claimService.changeClaimStatus(eq(1L), eq(ClaimStatus.UNDER_REVIEW), any())).thenReturn(Optional.of(updated));
+        
+        mockMvc.perform(patch("/claims/1/status")
+                .header("If-Match", "\"0-1.0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"UNDER_REVIEW\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+    
+    @Test
+    public void testChangeClaimStatus_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        when(claimService.changeClaimStatus(eq(1L), eq(ClaimStatus.APPROVED), any()))
+                .thenThrow(new ClaimVersionConflictException(1L, 2, LocalDateTime.now()));
+        
+        mockMvc.perform(patch("/claims/1/status")
+                .header("If-Match", "\"0-1.0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"APPROVED\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+    
+    @Test
+    public void testChangeClaimStatus_StaleExpectedVersionOrInvalidTransition_ReturnsConflict() throws Exception {
+        when(claimService.changeClaimStatus(eq(1L), eq(ClaimStatus.APPROVED), any()))
+                .thenThrow(new ClaimVersionConflictException(1L, 2, LocalDateTime.now()));
+        when(claimService.changeClaimStatus(eq(1L), eq(ClaimStatus.SUBMITTED), any()))
+                .thenThrow(new InvalidStatusTransitionException(1L, ClaimStatus.CLOSED, ClaimStatus.SUBMITTED));
+        
+        mockMvc.perform(patch("/claims/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"APPROVED\",\"expectedVersion\":0}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Version conflict"));
+        mockMvc.perform(patch("/claims/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"SUBMITTED\",\"expectedVersion\":3}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Invalid status transition"));
+    }
+    
+    @Test
+    public void testChangeClaimStatus_NoPrecondition_ReturnsPreconditionRequired() throws Exception {
+        mockMvc.perform(patch("/claims/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"APPROVED\"}"))
+                .andExpect(status().isPreconditionRequired());
+    }
+    
+    @Test
+    public void testSubscribeToStatusChanges_ByCustomer_StartsEventStream() throws Exception {
+        when(claimEventBroker.subscribe(eq(null), eq(12345L))).thenReturn(new SseEmitter());
+        
+        mockMvc.perform(get("/claims/events").param("customerId", "12345")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+    
+    @Test
+    public void testSearchClaims_LimitTooLarge_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/claims").param("limit", "10000"))
+                .andExpect(status().isBadRequest());
     }
     
     @Test
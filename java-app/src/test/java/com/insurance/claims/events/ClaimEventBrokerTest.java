@@ -0,0 +1,142 @@
+package com.insurance.claims.events;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.metrics.ClaimMetrics;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.ClaimJournal;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClaimEventBrokerTest {
+    
+    private final List<Runnable> pendingDrains = new ArrayList<>();
+    private ClaimEventBroker broker;
+    private ClaimService claimService;
+    
+    @BeforeEach
+    public void setUp() {
+        Executor executor = pendingDrains::add;
+        broker = new ClaimEventBroker(executor, 2, 3, Duration.ofMinutes(1), Duration.ofHours(1));
+        claimService = new ClaimService(new ConcurrentClaimStore(), ClaimJournal.NONE, ClaimMetrics.NONE, broker);
+        claimService.clearAllClaims();
+    }
+    
+    @Test
+    public void testPublish_DeliversOnlyToMatchingSubscribers() {
+        Claim auto = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        Claim home = claimService.createClaim(new ClaimRequest(67890L, "Home", "Fire damage"));
+        RecordingEmitter byClaim = subscribe(auto.getId(), null);
+        RecordingEmitter byCustomer = subscribe(null, 67890L);
+        RecordingEmitter all = subscribe(null, null);
+        
+        claimService.updateClaimStatus(auto.getId(), ClaimStatus.UNDER_REVIEW);
+        claimService.updateClaimStatus(home.getId(), ClaimStatus.APPROVED);
+        drain();
+        
+        assertEquals(1, byClaim.sent);
+        assertEquals(1, byCustomer.sent);
+        assertEquals(2, all.sent);
+    }
+    
+    @Test
+    public void testPublish_SlowSubscriberOverflowsBuffer_IsDisconnected() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        RecordingEmitter slow = subscribe(claim.getId(), null);
+        
+        // The buffer holds two events and nothing is drained
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.APPROVED);
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.CLOSED);
+        
+        assertTrue(slow.completed);
+        assertEquals(0, broker.getSubscriberCount());
+    }
+    
+    @Test
+    public void testSubscribe_OverLimit_Rejected() {
+        for (int i = 0; i < 3; i++) {
+            subscribe(null, null);
+        }
+        
+        assertThrows(ResponseStatusException.class, () -> subscribe(null, null));
+        assertEquals(3, broker.getSubscriberCount());
+    }
+    
+    @Test
+    public void testHeartbeat_SentOnlyToQuietSubscribers() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        RecordingEmitter busy = subscribe(claim.getId(), null);
+        RecordingEmitter quiet = subscribe(null, 67890L);
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+        drain();
+        
+        broker.heartbeat();
+        drain();
+        assertEquals(1, busy.sent);
+        assertEquals(1, quiet.sent);
+        
+        broker.heartbeat();
+        drain();
+        assertEquals(2, busy.sent);
+        assertEquals(2, quiet.sent);
+    }
+    
+    @Test
+    public void testHeartbeat_ToDisconnectedClient_ReleasesSlot() {
+        RecordingEmitter gone = subscribe(null, null);
+        gone.failSends = true;
+        subscribe(null, null);
+        subscribe(null, null);
+        
+        broker.heartbeat();
+        drain();
+        
+        assertEquals(2, broker.getSubscriberCount());
+        assertDoesNotThrow(() -> subscribe(null, null));
+    }
+    
+    private RecordingEmitter subscribe(Long claimId, Long customerId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broker.subscribe(emitter, claimId, customerId);
+        return emitter;
+    }
+    
+    private void drain() {
+        List<Runnable> drains = new ArrayList<>(pendingDrains);
+        pendingDrains.clear();
+        drains.forEach(Runnable::run);
+    }
+    
+    private static final class RecordingEmitter extends SseEmitter {
+        
+        int sent;
+        boolean completed;
+        boolean failSends;
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failSends) {
+                throw new IOException("Broken pipe");
+            }
+            sent++;
+        }
+        
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
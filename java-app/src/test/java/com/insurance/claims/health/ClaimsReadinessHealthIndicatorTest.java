@@ -0,0 +1,39 @@
+package com.insurance.claims.health;
+
+import com.insurance.claims.persistence.WriteAheadLog;
+import com.insurance.claims.persistence.WriteAheadLog.FsyncPolicy;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClaimsReadinessHealthIndicatorTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testHealth_InMemoryStore_IsUp() {
+        ClaimsReadinessHealthIndicator indicator = new ClaimsReadinessHealthIndicator(new ClaimService());
+        
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+    
+    @Test
+    public void testHealth_WriteAheadLogRecoveredThenClosed_GoesDown() throws Exception {
+        WriteAheadLog wal = new WriteAheadLog(tempDir, FsyncPolicy.ALWAYS, Duration.ofMillis(5));
+        ClaimsReadinessHealthIndicator indicator = new ClaimsReadinessHealthIndicator(
+                new ClaimService(new ConcurrentClaimStore(), wal));
+        assertEquals(Status.UP, indicator.health().getStatus());
+        
+        wal.close();
+        
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+}
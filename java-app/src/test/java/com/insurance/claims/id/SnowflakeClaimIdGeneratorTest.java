@@ -0,0 +1,136 @@
+package com.insurance.claims.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnowflakeClaimIdGeneratorTest {
+    
+    private static final int NODES = 8;
+    private static final int THREADS_PER_NODE = 4;
+    private static final int IDS_PER_THREAD = 50_000;
+    
+    @Test
+    public void testNextId_ManyThreadsOnSimulatedNodes_NoCollisions() throws Exception {
+        List<SnowflakeClaimIdGenerator> nodes = new ArrayList<>();
+        for (int n = 0; n < NODES; n++) {
+            nodes.add(new SnowflakeClaimIdGenerator(n));
+        }
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (SnowflakeClaimIdGenerator node : nodes) {
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        long previous = 0;
+                        for (int i = 0; i < IDS_PER_THREAD; i++) {
+                            long id = node.nextId();
+                            assertTrue(id > previous, "IDs from one node must increase");
+                            assertEquals(node.getNodeId(), SnowflakeClaimIdGenerator.nodeOf(id));
+                            ids.add(id);
+                            previous = id;
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(NODES * THREADS_PER_NODE * IDS_PER_THREAD, ids.size());
+    }
+    
+    @Test
+    public void testNextId_BurstWithinOneMillisecond_RunsAheadWithoutRepeating() {
+        SnowflakeClaimIdGenerator generator = new SnowflakeClaimIdGenerator(3, () -> 1_800_000_000_000L);
+        Set<Long> ids = new HashSet<>();
+        
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(ids.add(generator.nextId()));
+        }
+    }
+    
+    @Test
+    public void testNextIds_Batch_ReservesConsecutiveBlockAheadOfLaterIds() {
+        SnowflakeClaimIdGenerator generator = new SnowflakeClaimIdGenerator(3, () -> 1_800_000_000_000L);
+        long before = generator.nextId();
+        
+        long[] batch = generator.nextIds(100);
+        
+        assertEquals(100, batch.length);
+        assertEquals(before + 1, batch[0]);
+        for (int i = 1; i < batch.length; i++) {
+            assertEquals(batch[i - 1] + 1, batch[i]);
+        }
+        assertTrue(generator.nextId() > batch[99]);
+    }
+    
+    @Test
+    public void testNextIds_BatchLargerThanOneMillisecond_CarriesIntoTimestamp() {
+        SnowflakeClaimIdGenerator generator = new SnowflakeClaimIdGenerator(3, () -> 1_800_000_000_000L);
+        
+        long[] batch = generator.nextIds(10_000);
+        
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < batch.length; i++) {
+            assertTrue(ids.add(batch[i]));
+            assertEquals(3, SnowflakeClaimIdGenerator.nodeOf(batch[i]));
+            assertTrue(i == 0 || batch[i] > batch[i - 1]);
+        }
+        assertTrue(generator.nextId() > batch[batch.length - 1]);
+    }
+    
+    @Test
+    public void testNextId_ClockStepsBackwards_StillIncreasing() {
+        AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+        SnowflakeClaimIdGenerator generator = new SnowflakeClaimIdGenerator(3, clock::get);
+        long before = generator.nextId();
+        
+        clock.addAndGet(-60_000);
+        
+        assertTrue(generator.nextId() > before);
+    }
+    
+    @Test
+    public void testAdvancePast_RecoveredIdFromSameNode_NextIdIsGreater() {
+        AtomicLong clock = new AtomicLong(1_800_000_000_000L);
+        long recovered = new SnowflakeClaimIdGenerator(5, () -> clock.get() + 10_000).nextId();
+        SnowflakeClaimIdGenerator generator = new SnowflakeClaimIdGenerator(5, clock::get);
+        
+        generator.advancePast(recovered);
+        
+        assertTrue(generator.nextId() > recovered);
+    }
+    
+    @Test
+    public void testConstructor_NodeIdOutOfRange_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeClaimIdGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeClaimIdGenerator(-1));
+    }
+    
+    @Test
+    public void testResolveNodeId_RequiresExplicitNodeId() {
+        assertEquals(7, ClaimIdConfiguration.resolveNodeId(" 7 "));
+        assertThrows(IllegalStateException.class, () -> ClaimIdConfiguration.resolveNodeId(""));
+        assertThrows(IllegalStateException.class, () -> ClaimIdConfiguration.resolveNodeId("pod-7"));
+    }
+}
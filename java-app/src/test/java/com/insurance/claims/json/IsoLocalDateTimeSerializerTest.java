@@ -0,0 +1,92 @@
+package com.insurance.claims.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IsoLocalDateTimeSerializerTest {
+    
+    private final ObjectMapper standard = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    
+    private final ObjectMapper optimized = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new BlackbirdModule())
+            .addModule(new SimpleModule("IsoLocalDateTime").addSerializer(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    
+    public record Formatted(@JsonFormat(pattern = "dd/MM/yyyy HH:mm") LocalDateTime at) {
+    }
+    
+    @Test
+    public void testSerialize_MatchesJavaTimeModule() throws Exception {
+        LocalDateTime[] fixed = {
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(2024, 2, 29, 9, 5, 7, 100_000_000),
+                LocalDateTime.of(2024, 2, 29, 9, 5, 7, 120_000),
+                LocalDateTime.of(2024, 2, 29, 9, 5, 7, 1),
+                LocalDateTime.of(0, 1, 1, 0, 0),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                LocalDateTime.of(10000, 1, 1, 0, 0),
+                LocalDateTime.of(-1, 6, 15, 12, 30)
+        };
+        for (LocalDateTime value : fixed) {
+            assertEquals(standard.writeValueAsString(value), optimized.writeValueAsString(value));
+        }
+        
+        SplittableRandom random = new SplittableRandom(42);
+        long start = LocalDateTime.of(1970, 1, 1, 0, 0).toLocalDate().toEpochDay();
+        for (int i = 0; i < 100_000; i++) {
+            LocalDateTime value = LocalDateTime.of(1970, 1, 1, 0, 0)
+                    .plusDays(random.nextLong(start, start + 30_000) - start)
+                    .plusNanos(random.nextLong(86_400_000_000_000L));
+            // Also cover millisecond and microsecond precision, as from the clock and the database
+            if (i % 3 == 1) {
+                value = value.withNano(value.getNano() / 1_000_000 * 1_000_000);
+            } else if (i % 3 == 2) {
+                value = value.withNano(value.getNano() / 1_000 * 1_000);
+            }
+            assertEquals(standard.writeValueAsString(value), optimized.writeValueAsString(value));
+        }
+    }
+    
+    @Test
+    public void testSerialize_TimestampsAndFormatAnnotations_LeftToJavaTimeModule() throws Exception {
+        LocalDateTime value = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 500_000_000);
+        Formatted formatted = new Formatted(value);
+        assertEquals(standard.writeValueAsString(formatted), optimized.writeValueAsString(formatted));
+        assertEquals("{\"at\":\"15/03/2024 10:30\"}", optimized.writeValueAsString(formatted));
+        
+        assertEquals(standard.writer().with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(value),
+                optimized.writer().with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(value));
+    }
+    
+    @Test
+    public void testClaim_SameJsonAsStandardMapper() throws Exception {
+        Claim claim = new Claim(42L, 12345L, "Auto", "Rear-ended at a \"stop\" sign")
+                .withStatus(ClaimStatus.UNDER_REVIEW, LocalDateTime.now());
+        
+        String json = optimized.writeValueAsString(claim);
+        assertEquals(standard.writeValueAsString(claim), json);
+        
+        Claim read = optimized.readValue(json, Claim.class);
+        assertEquals(claim.getUpdatedAt(), read.getUpdatedAt());
+        assertEquals(claim.getDescription(), read.getDescription());
+    }
+}
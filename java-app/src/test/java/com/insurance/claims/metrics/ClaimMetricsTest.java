@@ -0,0 +1,59 @@
+package com.insurance.claims.metrics;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.ClaimJournal;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClaimMetricsTest {
+    
+    private SimpleMeterRegistry registry;
+    private ClaimService claimService;
+    
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        claimService = new ClaimService(new ConcurrentClaimStore(), ClaimJournal.NONE, new ClaimMetrics(registry));
+        claimService.clearAllClaims();
+    }
+    
+    @Test
+    public void testClaimOperations_RecordTimersAndCounters() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        claimService.createClaims(List.of(new ClaimRequest(67890L, "Home", "Fire damage")));
+        claimService.getClaimById(claim.getId());
+        claimService.getClaimById(999L);
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+        
+        assertEquals(1, registry.get("claims.operations").tag("operation", "create").timer().count());
+        assertEquals(1, registry.get("claims.operations").tag("operation", "createBatch").timer().count());
+        assertEquals(2, registry.get("claims.operations").tag("operation", "get").timer().count());
+        assertEquals(1, registry.get("claims.operations").tag("operation", "updateStatus").timer().count());
+        assertEquals(1, registry.get("claims.lookups").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("claims.lookups").tag("result", "miss").counter().count());
+        assertEquals(1, registry.get("claims.created").tag("type", "Auto").counter().count());
+        assertEquals(1, registry.get("claims.created").tag("type", "Home").counter().count());
+        assertEquals(1, registry.get("claims.status.transitions")
+                .tag("from", "SUBMITTED").tag("to", "UNDER_REVIEW").counter().count());
+        assertEquals(2, registry.get("claims.store.size").gauge().value());
+    }
+    
+    @Test
+    public void testClaimTypes_BeyondLimit_CountedAsOther() {
+        for (int i = 0; i < ClaimMetrics.MAX_CLAIM_TYPES + 5; i++) {
+            claimService.createClaim(new ClaimRequest(12345L, "Type" + i, "Claim " + i));
+        }
+        
+        assertEquals(ClaimMetrics.MAX_CLAIM_TYPES + 1, registry.get("claims.created").counters().size());
+        assertEquals(5, registry.get("claims.created").tag("type", ClaimMetrics.OTHER_CLAIM_TYPE).counter().count());
+    }
+}
@@ -0,0 +1,233 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.dto.ClaimPage;
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.WriteAheadLog.FsyncPolicy;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.ClaimStore;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import static com.insurance.claims.persistence.WriteAheadLogTest.directorySize;
+import static com.insurance.claims.persistence.WriteAheadLogTest.open;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClaimSnapshotTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testSnapshot_ThenTailWrites_RecoversSnapshotPlusTail() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        Claim auto;
+        Claim home;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimStore store = new ConcurrentClaimStore();
+            ClaimService claimService = new ClaimService(store, wal);
+            auto = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+            claimService.updateClaimStatus(auto.getId(), ClaimStatus.UNDER_REVIEW);
+            
+            ClaimSnapshotter snapshotter = new ClaimSnapshotter(wal, store, Duration.ofHours(1), 0);
+            assertEquals(1, snapshotter.snapshot());
+            
+            claimService.updateClaimStatus(auto.getId(), ClaimStatus.APPROVED);
+            home = claimService.createClaim(new ClaimRequest(67890L, "Home", "Water damage"));
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(2, recovered.getClaimsCount());
+            Claim restored = recovered.getClaimById(auto.getId()).orElseThrow();
+            assertEquals(ClaimStatus.APPROVED, restored.getStatus());
+            assertEquals(auto.getCreatedAt(), restored.getCreatedAt());
+            assertEquals("Water damage", recovered.getClaimById(home.getId()).orElseThrow().getDescription());
+            assertEquals(1, recovered.searchClaims(null, ClaimStatus.APPROVED, null, null, 10).getClaims().size());
+            assertTrue(recovered.searchClaims(null, ClaimStatus.UNDER_REVIEW, null, null, 10).getClaims().isEmpty());
+            assertTrue(recovered.createClaim(new ClaimRequest(1L, "Life", "New claim")).getId() > home.getId());
+        }
+    }
+    
+    @Test
+    public void testSnapshot_DeletesCoveredSegments() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimStore store = new ConcurrentClaimStore();
+            ClaimService claimService = new ClaimService(store, wal);
+            ClaimSnapshotter snapshotter = new ClaimSnapshotter(wal, store, Duration.ofHours(1), 0);
+            for (int round = 0; round < 3; round++) {
+                claimService.createClaim(new ClaimRequest(12345L, "Auto", "Claim " + round));
+                snapshotter.snapshot();
+            }
+            assertEquals(1, countSegments(directory));
+            assertTrue(Files.exists(wal.getSnapshotFile()));
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            assertEquals(3, new ClaimService(new ConcurrentClaimStore(), wal).getClaimsCount());
+        }
+    }
+    
+    @Test
+    public void testSnapshot_ConcurrentWriters_EveryAcknowledgedClaimIsRecovered() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        int threads = 8;
+        int claimsPerThread = 500;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.INTERVAL)) {
+            ClaimStore store = new ConcurrentClaimStore();
+            ClaimService claimService = new ClaimService(store, wal);
+            ClaimSnapshotter snapshotter = new ClaimSnapshotter(wal, store, Duration.ofHours(1), 0);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < claimsPerThread; i++) {
+                            Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Claim " + i));
+                            claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+                        }
+                    }));
+                }
+                while (!futures.stream().allMatch(Future::isDone)) {
+                    snapshotter.snapshot();
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(threads * claimsPerThread, recovered.getClaimsCount());
+            assertTrue(recovered.searchClaims(null, ClaimStatus.SUBMITTED, null, null, 1).getClaims().isEmpty());
+            assertEquals(threads * claimsPerThread, countClaims(recovered, ClaimStatus.UNDER_REVIEW));
+        }
+    }
+    
+    @Test
+    public void testSnapshot_CreateAppendedButNotYetStored_IsKeptAcrossRestart() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        ClaimStore store = new ConcurrentClaimStore() {
+            @Override
+            public Claim save(Claim claim) {
+                if ("Blocked".equals(claim.getDescription())) {
+                    // The create record is in the log but the claim is not in the store yet
+                    saving.countDown();
+                    awaitUninterruptibly(proceed);
+                }
+                return super.save(claim);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        long blockedId;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService claimService = new ClaimService(store, wal);
+            ClaimSnapshotter snapshotter = new ClaimSnapshotter(wal, store, Duration.ofHours(1), 0);
+            claimService.createClaim(new ClaimRequest(12345L, "Auto", "Before"));
+            Future<Claim> create = executor.submit(() -> claimService.createClaim(new ClaimRequest(67890L, "Home", "Blocked")));
+            assertTrue(saving.await(10, TimeUnit.SECONDS));
+            
+            Future<Long> snapshot = executor.submit(snapshotter::snapshot);
+            assertThrows(TimeoutException.class, () -> snapshot.get(200, TimeUnit.MILLISECONDS));
+            proceed.countDown();
+            Claim blocked = create.get(10, TimeUnit.SECONDS);
+            assertEquals(2, snapshot.get(10, TimeUnit.SECONDS));
+            
+            blockedId = blocked.getId();
+        } finally {
+            proceed.countDown();
+            executor.shutdownNow();
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(2, recovered.getClaimsCount());
+            assertEquals("Blocked", recovered.getClaimById(blockedId).orElseThrow().getDescription());
+        }
+    }
+    
+    /**
+     * Startup time from a snapshot versus a full log replay; run with -Dclaims.benchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "claims.benchmark", matches = "true")
+    public void benchmarkRecovery_OneMillionClaims_SnapshotVersusReplay() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        int records = 1_000_000;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.NEVER)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), wal);
+            List<ClaimRequest> batch = new ArrayList<>();
+            for (int i = 0; i < records; i++) {
+                batch.add(new ClaimRequest(10_000L + i % 5_000, "Auto", "Synthetic claim number " + i));
+                if (batch.size() == 10_000) {
+                    claimService.createClaims(batch);
+                    batch.clear();
+                }
+            }
+        }
+        
+        long start = System.nanoTime();
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.NEVER)) {
+            ClaimStore store = new ConcurrentClaimStore();
+            assertEquals(records, new ClaimService(store, wal).getClaimsCount());
+            long replayMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            System.out.printf("Log replay: %,d claims (%,d MB) in %,d ms%n",
+                    records, directorySize(directory) >> 20, replayMillis);
+            new ClaimSnapshotter(wal, store, Duration.ofHours(1), 0).snapshot();
+        }
+        
+        start = System.nanoTime();
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.NEVER)) {
+            assertEquals(records, new ClaimService(new ConcurrentClaimStore(), wal).getClaimsCount());
+        }
+        System.out.printf("Snapshot load: %,d claims (%,d MB) in %,d ms%n",
+                records, directorySize(directory) >> 20, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+    
+    private static int countClaims(ClaimService claimService, ClaimStatus status) {
+        int count = 0;
+        Long cursor = null;
+        do {
+            ClaimPage page = claimService.searchClaims(null, status, null, cursor, 500);
+            count += page.getClaims().size();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return count;
+    }
+    
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static long countSegments(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("wal-")).count();
+        }
+    }
+}
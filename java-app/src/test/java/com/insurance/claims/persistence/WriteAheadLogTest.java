@@ -0,0 +1,193 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.WriteAheadLog.FsyncPolicy;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testReplay_AfterRestart_RestoresClaimsAndStatuses() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        Claim auto;
+        Claim home;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(0, claimService.getClaimsCount());
+            auto = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident on highway"));
+            home = claimService.createClaim(new ClaimRequest(67890L, "Home", "Water damage"));
+            claimService.updateClaimStatus(auto.getId(), ClaimStatus.UNDER_REVIEW);
+            auto = claimService.updateClaimStatus(auto.getId(), ClaimStatus.APPROVED).orElseThrow();
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            
+            assertEquals(2, recovered.getClaimsCount());
+            Claim restored = recovered.getClaimById(auto.getId()).orElseThrow();
+            assertEquals(ClaimStatus.APPROVED, restored.getStatus());
+            assertEquals(auto.getUpdatedAt(), restored.getUpdatedAt());
+            assertEquals(auto.getCreatedAt(), restored.getCreatedAt());
+            assertEquals("Water damage", recovered.getClaimById(home.getId()).orElseThrow().getDescription());
+            assertEquals(1, recovered.searchClaims(null, ClaimStatus.APPROVED, null, null, 10).getClaims().size());
+            assertEquals(1L, recovered.getClaimStats().getByStatus().get(ClaimStatus.APPROVED));
+            assertEquals(1L, recovered.getClaimStats().getByStatus().get(ClaimStatus.SUBMITTED));
+            assertTrue(recovered.createClaim(new ClaimRequest(1L, "Life", "New claim")).getId() > home.getId());
+        }
+    }
+    
+    @Test
+    public void testReplay_ClaimVersionsSurviveLogReplayAndSnapshot() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        Claim auto;
+        Claim home;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ConcurrentClaimStore store = new ConcurrentClaimStore();
+            ClaimService claimService = new ClaimService(store, wal);
+            auto = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+            home = claimService.createClaim(new ClaimRequest(67890L, "Home", "Water damage"));
+            claimService.updateClaimStatus(auto.getId(), ClaimStatus.UNDER_REVIEW);
+            claimService.updateClaimStatus(auto.getId(), ClaimStatus.APPROVED);
+            claimService.updateClaimStatus(home.getId(), ClaimStatus.UNDER_REVIEW);
+            new ClaimSnapshotter(wal, store, Duration.ofHours(1), 0).snapshot();
+            // After the snapshot, so home's version comes from the snapshot plus a log record
+            claimService.updateClaimStatus(home.getId(), ClaimStatus.DENIED);
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(2, recovered.getClaimById(auto.getId()).orElseThrow().getVersion());
+            assertEquals(2, recovered.getClaimById(home.getId()).orElseThrow().getVersion());
+            // A precondition read at version 1 before the restart must not match the new state
+            assertThrows(ClaimVersionConflictException.class, () -> recovered.changeClaimStatus(
+                    auto.getId(), ClaimStatus.CLOSED, claim -> claim.getVersion() == 1));
+            assertEquals(3, recovered.changeClaimStatus(auto.getId(), ClaimStatus.CLOSED,
+                    claim -> claim.getVersion() == 2).orElseThrow().getVersion());
+        }
+    }
+    
+    @Test
+    public void testReplay_TornTail_IsTruncatedAndLogStaysAppendable() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), wal);
+            claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        }
+        Path segment = directory.resolve("wal-00000000000000000000.log");
+        long intactSize = Files.size(segment);
+        // Simulate a crash in the middle of writing the next record
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(1, claimService.getClaimsCount());
+            assertEquals(intactSize, Files.size(segment));
+            claimService.createClaim(new ClaimRequest(67890L, "Home", "Fire damage"));
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            assertEquals(2, new ClaimService(new ConcurrentClaimStore(), wal).getClaimsCount());
+        }
+    }
+    
+    @Test
+    public void testGroupCommit_ConcurrentWriters_EveryAcknowledgedClaimIsReplayed() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        int threads = 32;
+        int claimsPerThread = 200;
+        try (WriteAheadLog wal = new WriteAheadLog(directory, FsyncPolicy.ALWAYS, Duration.ofMillis(5), 4096)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), wal);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < claimsPerThread; i++) {
+                            Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Claim " + i));
+                            claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.ALWAYS)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(threads * claimsPerThread, recovered.getClaimsCount());
+            assertNull(recovered.searchClaims(null, ClaimStatus.SUBMITTED, null, null, 1).getNextCursor());
+            assertTrue(recovered.searchClaims(null, ClaimStatus.SUBMITTED, null, null, 1).getClaims().isEmpty());
+        }
+    }
+    
+    /**
+     * Replay throughput benchmark; run with -Dclaims.benchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "claims.benchmark", matches = "true")
+    public void benchmarkReplay_OneMillionRecords() throws Exception {
+        Path directory = tempDir.resolve("wal");
+        int records = 1_000_000;
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.NEVER)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), wal);
+            List<ClaimRequest> batch = new ArrayList<>();
+            for (int i = 0; i < records; i++) {
+                batch.add(new ClaimRequest(10_000L + i % 5_000, "Auto", "Synthetic claim number " + i));
+                if (batch.size() == 10_000) {
+                    claimService.createClaims(batch);
+                    batch.clear();
+                }
+            }
+        }
+        
+        long start = System.nanoTime();
+        try (WriteAheadLog wal = open(directory, FsyncPolicy.NEVER)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), wal);
+            assertEquals(records, recovered.getClaimsCount());
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        System.out.printf("WAL replay: %,d records (%,d MB) in %,d ms%n",
+                records, directorySize(directory) >> 20, elapsedMillis);
+    }
+    
+    static WriteAheadLog open(Path directory, FsyncPolicy policy) throws Exception {
+        return new WriteAheadLog(directory, policy, Duration.ofMillis(5));
+    }
+    
+    static long directorySize(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            long size = 0;
+            for (Path path : (Iterable<Path>) files::iterator) {
+                size += Files.size(path);
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.insurance.claims.persistence;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.metrics.ClaimMetrics;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.service.ClaimService;
+import com.insurance.claims.store.CachingClaimStore;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindJournalTest {
+    
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(10);
+    
+    @Test
+    public void testRestart_RestoresClaimsAndStatusesFromDatabase() throws Exception {
+        String url = "jdbc:h2:mem:write-behind-restart;DB_CLOSE_DELAY=-1";
+        Claim auto;
+        Claim home;
+        try (WriteBehindJournal journal = open(url)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(claimService);
+            auto = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident on highway"));
+            home = claimService.createClaim(new ClaimRequest(67890L, "Home", "Water damage"));
+            claimService.updateClaimStatus(auto.getId(), ClaimStatus.UNDER_REVIEW);
+            auto = claimService.updateClaimStatus(auto.getId(), ClaimStatus.APPROVED).orElseThrow();
+        }
+        
+        try (WriteBehindJournal journal = open(url)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(recovered);
+            
+            assertEquals(2, recovered.getClaimsCount());
+            Claim restored = recovered.getClaimById(auto.getId()).orElseThrow();
+            assertEquals(ClaimStatus.APPROVED, restored.getStatus());
+            assertEquals(2, restored.getVersion());
+            assertEquals(auto.getUpdatedAt(), restored.getUpdatedAt());
+            assertEquals("Water damage", recovered.getClaimById(home.getId()).orElseThrow().getDescription());
+            assertEquals(1, recovered.searchClaims(null, ClaimStatus.APPROVED, null, null, 10).getClaims().size());
+            assertTrue(recovered.createClaim(new ClaimRequest(1L, "Life", "New claim")).getId() > home.getId());
+        }
+    }
+    
+    @Test
+    public void testChangesToOneClaim_CoalesceIntoOneWrite() throws Exception {
+        RecordingBackingStore backingStore = new RecordingBackingStore();
+        try (WriteBehindJournal journal = new WriteBehindJournal(backingStore, 100, 1000, Duration.ofHours(1))) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(claimService);
+            Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+            claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+            claimService.updateClaimStatus(claim.getId(), ClaimStatus.APPROVED);
+            
+            assertEquals(1, journal.getPendingCount());
+        }
+        
+        assertEquals(1, backingStore.inserts.size());
+        assertTrue(backingStore.updates.isEmpty());
+        assertEquals(ClaimStatus.APPROVED, backingStore.inserts.get(0).getStatus());
+    }
+    
+    @Test
+    public void testFullQueue_BlocksWritersAndReportsUnavailableUntilFlushed() throws Exception {
+        RecordingBackingStore backingStore = new RecordingBackingStore();
+        backingStore.blocked = new CountDownLatch(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (WriteBehindJournal journal = new WriteBehindJournal(backingStore, 2, 4, FLUSH_INTERVAL, new ClaimMetrics(registry))) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(claimService);
+            for (int i = 0; i < 3; i++) {
+                claimService.createClaim(new ClaimRequest(12345L, "Auto", "Claim " + i));
+            }
+            
+            CompletableFuture<Claim> blocked = CompletableFuture.supplyAsync(
+                    () -> claimService.createClaim(new ClaimRequest(12345L, "Auto", "Claim 3")));
+            
+            assertThrows(Exception.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+            assertFalse(claimService.isReady());
+            assertEquals(4, registry.get("claims.writebehind.queue.depth").gauge().value());
+            assertTrue(registry.get("claims.writebehind.flush.lag").gauge().value() > 0);
+            
+            backingStore.blocked.countDown();
+            assertNotNull(blocked.get(5, TimeUnit.SECONDS));
+            awaitReady(claimService);
+        }
+        assertEquals(4, backingStore.inserts.size());
+    }
+    
+    @Test
+    public void testFailedWrite_IsRetried() throws Exception {
+        RecordingBackingStore backingStore = new RecordingBackingStore();
+        backingStore.failures.set(2);
+        try (WriteBehindJournal journal = new WriteBehindJournal(backingStore, 10, 100, FLUSH_INTERVAL)) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(claimService);
+            claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+            
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (journal.getPendingCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            
+            assertEquals(0, journal.getPendingCount());
+            assertEquals(0, backingStore.failures.get());
+        }
+        assertEquals(1, backingStore.inserts.size());
+    }
+    
+    @Test
+    public void testClaimRejectedByDatabase_IsSetAsideAndDoesNotBlockOthers() throws Exception {
+        String url = "jdbc:h2:mem:write-behind-rejected;DB_CLOSE_DELAY=-1";
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Claim tooLong;
+        Claim valid;
+        try (WriteBehindJournal journal = open(url, new ClaimMetrics(registry))) {
+            ClaimService claimService = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(claimService);
+            // Bypasses request validation, as a claim that outgrew a later schema would
+            tooLong = claimService.createClaim(new ClaimRequest(12345L, "Auto", "x".repeat(5000)));
+            valid = claimService.createClaim(new ClaimRequest(67890L, "Home", "Water damage"));
+            
+            awaitFlushed(journal);
+            assertEquals(1.0, registry.get("claims.writebehind.rejected").counter().count());
+            assertTrue(claimService.isReady());
+        }
+        
+        try (WriteBehindJournal journal = open(url)) {
+            ClaimService recovered = new ClaimService(new ConcurrentClaimStore(), journal);
+            awaitReady(recovered);
+            assertTrue(recovered.getClaimById(tooLong.getId()).isEmpty());
+            assertEquals("Water damage", recovered.getClaimById(valid.getId()).orElseThrow().getDescription());
+        }
+    }
+    
+    @Test
+    public void testInsertAlreadyCommitted_IsWrittenAgainWithoutError() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:write-behind-idempotent;DB_CLOSE_DELAY=-1");
+        LocalDateTime created = LocalDateTime.now();
+        Claim submitted = new Claim(1L, 12345L, "Auto", "Car accident", ClaimStatus.SUBMITTED, created, created, 0);
+        Claim approved = submitted.withStatus(ClaimStatus.APPROVED, created.plusMinutes(1), 1);
+        try (JdbcClaimBackingStore backingStore = new JdbcClaimBackingStore(dataSource)) {
+            backingStore.write(List.of(submitted), List.of());
+            // The acknowledgement was lost, so the flusher inserts the claim again, by now changed
+            backingStore.write(List.of(approved), List.of());
+            
+            Claim stored = backingStore.load(1L).orElseThrow();
+            assertEquals(ClaimStatus.APPROVED, stored.getStatus());
+            assertEquals(1, stored.getVersion());
+            assertEquals(1, backingStore.highestId());
+        }
+    }
+    
+    @Test
+    public void testWriteDuringBackgroundLoad_WaitsAndIsNotOverwrittenByLoadedRow() throws Exception {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        RecordingBackingStore backingStore = new RecordingBackingStore();
+        backingStore.rows.add(new Claim(1L, 12345L, "Auto", "Car accident", ClaimStatus.SUBMITTED, created, created, 0));
+        backingStore.rows.add(new Claim(2L, 67890L, "Home", "Water damage", ClaimStatus.SUBMITTED, created, created, 0));
+        backingStore.loadPaused = new CountDownLatch(1);
+        backingStore.resumeLoad = new CountDownLatch(1);
+        try (WriteBehindJournal journal = new WriteBehindJournal(backingStore, 100, 1000, FLUSH_INTERVAL)) {
+            ClaimService claimService = new ClaimService(
+                    new CachingClaimStore(journal::load, 1 << 20, ClaimMetrics.NONE), journal);
+            assertTrue(backingStore.loadPaused.await(5, TimeUnit.SECONDS));
+            
+            // Claim 2 has not been loaded yet; without waiting it would be read through and then overwritten
+            CompletableFuture<Optional<Claim>> update = CompletableFuture.supplyAsync(
+                    () -> claimService.updateClaimStatus(2L, ClaimStatus.UNDER_REVIEW));
+            assertThrows(TimeoutException.class, () -> update.get(200, TimeUnit.MILLISECONDS));
+            
+            backingStore.resumeLoad.countDown();
+            assertEquals(1, update.get(5, TimeUnit.SECONDS).orElseThrow().getVersion());
+            awaitReady(claimService);
+            
+            assertEquals(ClaimStatus.UNDER_REVIEW, claimService.getClaimById(2L).orElseThrow().getStatus());
+            assertEquals(2L, claimService.searchClaims(null, ClaimStatus.UNDER_REVIEW, null, null, 10).getClaims().get(0).getId());
+            assertEquals(1, claimService.searchClaims(67890L, null, null, null, 10).getClaims().size());
+            assertEquals(1L, claimService.getClaimStats().getByStatus().get(ClaimStatus.SUBMITTED));
+            assertEquals(1L, claimService.getClaimStats().getByStatus().get(ClaimStatus.UNDER_REVIEW));
+        } finally {
+            backingStore.resumeLoad.countDown();
+        }
+    }
+    
+    private static WriteBehindJournal open(String url) throws IOException {
+        return open(url, ClaimMetrics.NONE);
+    }
+    
+    private static WriteBehindJournal open(String url, ClaimMetrics claimMetrics) throws IOException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        return new WriteBehindJournal(new JdbcClaimBackingStore(dataSource), 100, 1000, FLUSH_INTERVAL, claimMetrics);
+    }
+    
+    private static void awaitFlushed(WriteBehindJournal journal) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (journal.getPendingCount() > 0) {
+            assertTrue(System.nanoTime() < deadline, "Claims were not flushed in time");
+            Thread.sleep(5);
+        }
+    }
+    
+    private static void awaitReady(ClaimService claimService) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!claimService.isReady()) {
+            assertTrue(System.nanoTime() < deadline, "Claims were not loaded in time");
+            Thread.sleep(5);
+        }
+    }
+    
+    private static class RecordingBackingStore implements ClaimBackingStore {
+        
+        final List<Claim> inserts = new ArrayList<>();
+        final List<Claim> updates = new ArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+        final List<Claim> rows = new ArrayList<>();
+        volatile CountDownLatch blocked;
+        /** When set, loadAll stops after the first row until resumeLoad is counted down */
+        volatile CountDownLatch loadPaused;
+        volatile CountDownLatch resumeLoad;
+        
+        @Override
+        public long highestId() {
+            return rows.stream().mapToLong(Claim::getId).max().orElse(0);
+        }
+        
+        @Override
+        public Optional<Claim> load(long claimId) {
+            return rows.stream().filter(row -> row.getId() == claimId).findFirst();
+        }
+        
+        @Override
+        public void loadAll(Consumer<Claim> consumer) throws IOException {
+            for (int i = 0; i < rows.size(); i++) {
+                if (i == 1 && loadPaused != null) {
+                    loadPaused.countDown();
+                    try {
+                        resumeLoad.await();
+                    } catch (InterruptedException ex) {
+                        throw new IOException(ex);
+                    }
+                }
+                consumer.accept(rows.get(i));
+            }
+        }
+        
+        @Override
+        public synchronized void write(List<Claim> inserts, List<Claim> updates) throws IOException {
+            if (blocked != null) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException ex) {
+                    throw new IOException(ex);
+                }
+            }
+            if (failures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                throw new IOException("Database unavailable");
+            }
+            this.inserts.addAll(inserts);
+            this.updates.addAll(updates);
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.insurance.claims.search;
+
+import com.insurance.claims.model.Claim;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DescriptionIndexTest {
+    
+    private static final String[] WORDS = {
+            "water", "damage", "burst", "pipe", "kitchen", "roof", "hail", "car", "rear", "ended",
+            "fire", "smoke", "theft", "window", "broken", "storm", "tree", "fell", "basement", "flood"
+    };
+    
+    private final DescriptionIndex index = new DescriptionIndex();
+    
+    @Test
+    public void testSearch_AllWordsRequired() {
+        index.add(claim(1, "Burst pipe flooded the kitchen"));
+        index.add(claim(2, "Water damage in the kitchen"));
+        index.add(claim(3, "Kitchen fire"));
+        
+        assertArrayEquals(new long[]{2}, search("kitchen WATER", 10).claimIds());
+        assertEquals(3, search("kitchen", 10).totalMatches());
+        assertEquals(0, search("kitchen roof", 10).totalMatches());
+        assertEquals(0, search("unknown", 10).totalMatches());
+    }
+    
+    @Test
+    public void testSearch_RareWordsAndRepeatedWordsRankHigher() {
+        index.add(claim(1, "Hail damage to roof"));
+        index.add(claim(2, "Hail damage to car"));
+        index.add(claim(3, "Hail damage, hail everywhere"));
+        index.add(claim(4, "Storm damage"));
+        
+        // "car" occurs once in the index, "damage" everywhere
+        assertEquals(2, search("damage car", 10).claimIds()[0]);
+        assertEquals(3, search("hail", 10).claimIds()[0]);
+        // Equal scores go to the newer claim
+        assertArrayEquals(new long[]{4, 3, 2, 1}, search("damage", 10).claimIds());
+    }
+    
+    @Test
+    public void testSearch_Phrase() {
+        index.add(claim(1, "Burst pipe in the basement"));
+        index.add(claim(2, "Pipe burst in the basement"));
+        DescriptionQuery query = DescriptionQuery.parse("basement \"burst pipe\"");
+        Map<Long, String> descriptions = Map.of(1L, "Burst pipe in the basement", 2L, "Pipe burst in the basement");
+        
+        DescriptionIndex.Result result = index.search(query, 10, id -> query.matchesPhrases(descriptions.get(id)));
+        
+        assertArrayEquals(new long[]{1}, result.claimIds());
+        assertEquals(1, result.totalMatches());
+        assertFalse(DescriptionQuery.parse("\"burst\"").hasPhrases());
+        assertTrue(DescriptionQuery.parse("\"\"  ...").isEmpty());
+    }
+    
+    @Test
+    public void testSearch_LimitKeepsBestAndCountsAll() {
+        for (int i = 1; i <= 500; i++) {
+            index.add(claim(i, i % 50 == 0 ? "Storm storm storm damage" : "Storm damage"));
+        }
+        
+        DescriptionIndex.Result result = search("storm damage", 10);
+        
+        assertEquals(500, result.totalMatches());
+        assertArrayEquals(new long[]{500, 450, 400, 350, 300, 250, 200, 150, 100, 50}, result.claimIds());
+    }
+    
+    @Test
+    public void testOutOfOrderAdds_MatchLinearScan() {
+        Random random = new Random(42);
+        List<Claim> claims = randomClaims(random, 5_000);
+        // Mostly ascending, with some IDs arriving late as they do under concurrent creates
+        List<Claim> arrival = new ArrayList<>(claims);
+        for (int i = 0; i < arrival.size(); i++) {
+            if (random.nextInt(10) == 0) {
+                Collections.swap(arrival, i, Math.max(0, i - random.nextInt(400)));
+            }
+        }
+        arrival.forEach(index::add);
+        
+        assertEquals(claims.size(), index.size());
+        assertMatchesLinearScan(claims, random);
+    }
+    
+    @Test
+    public void testConcurrentAdds_MatchLinearScan() throws Exception {
+        Random random = new Random(7);
+        List<Claim> claims = randomClaims(random, 20_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = thread; i < claims.size(); i += 8) {
+                        index.add(claims.get(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(claims.size(), index.size());
+        assertMatchesLinearScan(claims, random);
+    }
+    
+    private void assertMatchesLinearScan(List<Claim> claims, Random random) {
+        for (int q = 0; q < 200; q++) {
+            String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + (random.nextBoolean() ? " " + WORDS[random.nextInt(WORDS.length)] : "");
+            DescriptionQuery query = DescriptionQuery.parse(text);
+            
+            List<Long> expected = new ArrayList<>();
+            for (Claim claim : claims) {
+                if (Tokenizer.tokenize(claim.getDescription()).containsAll(query.getTerms())) {
+                    expected.add(claim.getId());
+                }
+            }
+            DescriptionIndex.Result result = index.search(query, claims.size(), null);
+            
+            assertEquals(expected.size(), result.totalMatches(), text);
+            List<Long> actual = new ArrayList<>();
+            for (long id : result.claimIds()) {
+                actual.add(id);
+            }
+            Collections.sort(actual);
+            assertEquals(expected, actual, text);
+        }
+    }
+    
+    private static List<Claim> randomClaims(Random random, int count) {
+        List<Claim> claims = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            // Sparse IDs, like Snowflake IDs, so deltas take several bytes
+            id += 1 + random.nextInt(5_000);
+            StringBuilder description = new StringBuilder();
+            int words = 3 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                // Skewed so that some words are common and some rare
+                int word = (int) (WORDS.length * Math.pow(random.nextDouble(), 2));
+                description.append(WORDS[word]).append(' ');
+            }
+            claims.add(claim(id, description.toString()));
+        }
+        return claims;
+    }
+    
+    private DescriptionIndex.Result search(String query, int limit) {
+        return index.search(DescriptionQuery.parse(query), limit, null);
+    }
+    
+    private static Claim claim(long id, String description) {
+        return new Claim(id, 12345L, "Home", description);
+    }
+}
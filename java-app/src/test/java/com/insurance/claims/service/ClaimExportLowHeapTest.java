@@ -0,0 +1,118 @@
+package com.insurance.claims.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.store.ClaimStore;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports a million synthetic claims in a JVM with a deliberately small heap
+ * (see the low-heap surefire execution in pom.xml). Materializing the export
+ * would need several hundred MB, so completing proves the export streams.
+ */
+public class ClaimExportLowHeapTest {
+    
+    private static final int CLAIMS = 1_000_000;
+    
+    @Test
+    public void testExportClaims_MillionClaims_CompletesWithinSmallHeap() throws Exception {
+        assertTrue(Runtime.getRuntime().maxMemory() <= 64L * 1024 * 1024,
+                "run with the low-heap execution (-Xmx48m), max heap was " + Runtime.getRuntime().maxMemory());
+        ClaimService claimService = new ClaimService(new SyntheticClaimStore(CLAIMS));
+        ClaimExportService exportService = new ClaimExportService(claimService,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        CountingOutputStream out = new CountingOutputStream();
+        
+        long written = exportService.exportClaims(out, null, null, null);
+        
+        assertEquals(CLAIMS, written);
+        assertEquals(CLAIMS, out.lines);
+        assertTrue(out.bytes > CLAIMS * 100L);
+    }
+    
+    /**
+     * Read-only store that fabricates claims on demand instead of keeping them on heap
+     */
+    private static class SyntheticClaimStore implements ClaimStore {
+        
+        private static final String[] TYPES = {"Auto", "Home", "Health"};
+        private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+        
+        private final int size;
+        
+        SyntheticClaimStore(int size) {
+            this.size = size;
+        }
+        
+        @Override
+        public Claim save(Claim claim) {
+            return claim;
+        }
+        
+        @Override
+        public Optional<Claim> findById(long claimId) {
+            return claimId >= 1 && claimId <= size ? Optional.of(claim(claimId)) : Optional.empty();
+        }
+        
+        @Override
+        public Optional<Claim> update(long claimId, UnaryOperator<Claim> updater) {
+            return findById(claimId).map(updater);
+        }
+        
+        @Override
+        public void forEach(Consumer<? super Claim> action) {
+            for (long id = 1; id <= size; id++) {
+                action.accept(claim(id));
+            }
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+        
+        @Override
+        public void clear() {
+        }
+        
+        private static Claim claim(long id) {
+            LocalDateTime now = LocalDateTime.now();
+            return new Claim(id, 10_000L + id % 5_000, TYPES[(int) (id % TYPES.length)],
+                    "Synthetic claim number " + id + " for export testing",
+                    STATUSES[(int) (id % STATUSES.length)], now, now, 0);
+        }
+    }
+    
+    private static class CountingOutputStream extends OutputStream {
+        long bytes;
+        long lines;
+        
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.insurance.claims.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClaimExportServiceTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private ClaimService claimService;
+    private ClaimExportService claimExportService;
+    
+    @BeforeEach
+    public void setUp() {
+        claimService = new ClaimService();
+        claimService.clearAllClaims();
+        claimExportService = new ClaimExportService(claimService, objectMapper);
+    }
+    
+    @Test
+    public void testExportClaims_NoFilters_WritesOneLinePerClaim() throws Exception {
+        claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        claimService.createClaim(new ClaimRequest(67890L, "Home", "Fire damage"));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = claimExportService.exportClaims(out, null, null, null);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, written);
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            assertTrue(node.has("id"));
+            assertTrue(node.has("claimType"));
+        }
+    }
+    
+    @Test
+    public void testExportClaims_StatusAndSinceFilters_WritesOnlyMatches() throws Exception {
+        Claim auto = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        claimService.createClaim(new ClaimRequest(67890L, "Auto", "Hail damage"));
+        claimService.updateClaimStatus(auto.getId(), ClaimStatus.APPROVED);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long approved = claimExportService.exportClaims(out, ClaimStatus.APPROVED, "Auto", null);
+        long future = claimExportService.exportClaims(new ByteArrayOutputStream(), null, null,
+                LocalDateTime.now().plusDays(1));
+        
+        assertEquals(1, approved);
+        assertEquals(auto.getId(), objectMapper.readTree(out.toByteArray()).get("id").asLong());
+        assertEquals(0, future);
+    }
+}
@@ -1,11 +1,19 @@
 package com.insurance.claims.service;
 
+import com.insurance.claims.dto.ClaimPage;
 import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.dto.DescriptionSearchPage;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.exception.InvalidStatusTransitionException;
 import com.insurance.claims.model.Claim;
 import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.ClaimJournal;
+import com.insurance.claims.search.DescriptionQuery;
+import com.insurance.claims.store.ConcurrentClaimStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +44,20 @@ public class ClaimServiceTest {
         assertNotNull(createdClaim.getUpdatedAt());
     }
     
+    @Test
+    public void testCreateClaims_Batch_AssignsConsecutiveIdsAndStoresAll() {
+        List<Claim> created = claimService.createClaims(List.of(
+                new ClaimRequest(12345L, "Auto", "Car accident"),
+                new ClaimRequest(67890L, "Home", "Fire damage"),
+                new ClaimRequest(11111L, "Health", "Broken arm")));
+        
+        assertEquals(3, created.size());
+        assertEquals(created.get(0).getId() + 1, created.get(1).getId());
+        assertEquals(created.get(0).getId() + 2, created.get(2).getId());
+        assertEquals(3, claimService.getClaimsCount());
+        assertEquals("Fire damage", claimService.getClaimById(created.get(1).getId()).get().getDescription());
+    }
+    
     @Test
     public void testGetClaimById_ExistingClaim_ReturnsClaim() {
         ClaimRequest request = new ClaimRequest(12345L, "Auto", "Car accident on highway");
@@ -64,6 +86,68 @@ public class ClaimServiceTest {
         
         assertTrue(updatedClaim.isPresent());
         assertEquals(ClaimStatus.UNDER_REVIEW, updatedClaim.get().getStatus());
+        assertEquals(1, updatedClaim.get().getVersion());
+    }
+    
+    @Test
+    public void testUpdateClaimStatus_PreviousSnapshotUnchanged() {
+        Claim createdClaim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident on highway"));
+        Claim beforeUpdate = claimService.getClaimById(createdClaim.getId()).orElseThrow();
+        
+        Claim updatedClaim = claimService.updateClaimStatus(createdClaim.getId(), ClaimStatus.UNDER_REVIEW).orElseThrow();
+        
+        assertNotSame(beforeUpdate, updatedClaim);
+        assertEquals(ClaimStatus.SUBMITTED, beforeUpdate.getStatus());
+        assertEquals(0, beforeUpdate.getVersion());
+        assertEquals(createdClaim.getUpdatedAt(), beforeUpdate.getUpdatedAt());
+        assertEquals(createdClaim.getCreatedAt(), updatedClaim.getCreatedAt());
+        assertSame(updatedClaim, claimService.getClaimById(createdClaim.getId()).orElseThrow());
+    }
+    
+    @Test
+    public void testChangeClaimStatus_ExpectedVersion_AppliesAndBumpsVersion() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        
+        Optional<Claim> updated = claimService.changeClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW, c -> c.getVersion() == 0);
+        
+        assertEquals(ClaimStatus.UNDER_REVIEW, updated.orElseThrow().getStatus());
+        assertEquals(1, updated.get().getVersion());
+    }
+    
+    @Test
+    public void testChangeClaimStatus_StaleVersion_ThrowsAndLeavesClaimUnchanged() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+        
+        assertThrows(ClaimVersionConflictException.class,
+                () -> claimService.changeClaimStatus(claim.getId(), ClaimStatus.APPROVED, c -> c.getVersion() == 0));
+        assertEquals(ClaimStatus.UNDER_REVIEW, claimService.getClaimById(claim.getId()).orElseThrow().getStatus());
+    }
+    
+    @Test
+    public void testChangeClaimStatus_ClosedClaim_RejectsTransition() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        claimService.changeClaimStatus(claim.getId(), ClaimStatus.CLOSED, c -> true);
+        
+        assertThrows(InvalidStatusTransitionException.class,
+                () -> claimService.changeClaimStatus(claim.getId(), ClaimStatus.SUBMITTED, c -> true));
+        assertEquals(1, claimService.searchClaims(null, ClaimStatus.CLOSED, null, null, 10).getClaims().size());
+    }
+    
+    @Test
+    public void testUpdateClaimStatus_JournalAppendFails_IndexesAndStatsUnchanged() {
+        ClaimService failingJournalService = new ClaimService(new ConcurrentClaimStore(), new FailingStatusJournal());
+        failingJournalService.clearAllClaims();
+        Claim claim = failingJournalService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        
+        assertThrows(IllegalStateException.class,
+                () -> failingJournalService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW));
+        
+        assertEquals(ClaimStatus.SUBMITTED, failingJournalService.getClaimById(claim.getId()).orElseThrow().getStatus());
+        assertEquals(1, failingJournalService.searchClaims(null, ClaimStatus.SUBMITTED, null, null, 10).getClaims().size());
+        assertTrue(failingJournalService.searchClaims(null, ClaimStatus.UNDER_REVIEW, null, null, 10).getClaims().isEmpty());
+        assertEquals(1L, failingJournalService.getClaimStats().getByStatus().get(ClaimStatus.SUBMITTED));
+        assertEquals(0L, failingJournalService.getClaimStats().getByStatus().get(ClaimStatus.UNDER_REVIEW));
     }
     
     @Test
@@ -81,4 +165,103 @@ public class ClaimServiceTest {
         
         assertEquals(2, claimService.getClaimsCount());
     }
+    
+    @Test
+    public void testSearchClaims_ByCustomerAndType_ReturnsOnlyMatches() {
+        claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        claimService.createClaim(new ClaimRequest(12345L, "Home", "Fire damage"));
+        claimService.createClaim(new ClaimRequest(67890L, "Auto", "Hail damage"));
+        
+        ClaimPage page = claimService.searchClaims(12345L, null, "Auto", null, 10);
+        
+        assertEquals(1, page.getClaims().size());
+        assertEquals("Car accident", page.getClaims().get(0).getDescription());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    public void testSearchClaims_AfterStatusUpdate_ClaimMovesBetweenStatusBuckets() {
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Car accident"));
+        
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+        
+        assertTrue(claimService.searchClaims(null, ClaimStatus.SUBMITTED, null, null, 10).getClaims().isEmpty());
+        assertEquals(1, claimService.searchClaims(null, ClaimStatus.UNDER_REVIEW, null, null, 10).getClaims().size());
+    }
+    
+    @Test
+    public void testSearchClaims_WithCursor_PagesThroughAllMatches() {
+        for (int i = 0; i < 5; i++) {
+            claimService.createClaim(new ClaimRequest(12345L, "Auto", "Claim " + i));
+        }
+        
+        ClaimPage first = claimService.searchClaims(null, null, null, null, 2);
+        ClaimPage second = claimService.searchClaims(null, null, null, first.getNextCursor(), 2);
+        ClaimPage last = claimService.searchClaims(null, null, null, second.getNextCursor(), 2);
+        
+        assertEquals(2, first.getClaims().size());
+        assertEquals(2, second.getClaims().size());
+        assertEquals(1, last.getClaims().size());
+        assertNull(last.getNextCursor());
+        assertEquals("Claim 4", last.getClaims().get(0).getDescription());
+    }
+    
+    @Test
+    public void testSearchDescriptions_NewClaimsAreSearchableAndPaged() {
+        claimService.createClaim(new ClaimRequest(12345L, "Home", "Burst pipe flooded the kitchen"));
+        claimService.createClaim(new ClaimRequest(12345L, "Home", "Pipe burst under the kitchen sink"));
+        claimService.createClaims(List.of(
+                new ClaimRequest(67890L, "Home", "Kitchen fire"),
+                new ClaimRequest(67890L, "Auto", "Burst tyre")));
+        
+        DescriptionSearchPage phrase = claimService.searchDescriptions(DescriptionQuery.parse("\"burst pipe\""), 0, 10);
+        DescriptionSearchPage first = claimService.searchDescriptions(DescriptionQuery.parse("kitchen"), 0, 2);
+        DescriptionSearchPage last = claimService.searchDescriptions(DescriptionQuery.parse("kitchen"), 2, 2);
+        
+        assertEquals(1, phrase.getTotalMatches());
+        assertEquals("Burst pipe flooded the kitchen", phrase.getClaims().get(0).getDescription());
+        assertEquals(3, first.getTotalMatches());
+        assertEquals(2, first.getClaims().size());
+        assertEquals(2, first.getNextOffset());
+        assertEquals(1, last.getClaims().size());
+        assertNull(last.getNextOffset());
+    }
+    
+    /**
+     * In-memory journal whose status change appends fail, as when the log's disk fills up
+     */
+    private static class FailingStatusJournal implements ClaimJournal {
+        
+        @Override
+        public boolean isDurable() {
+            return false;
+        }
+        
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+        
+        @Override
+        public void replay(Replayer replayer) {
+        }
+        
+        @Override
+        public long appendCreate(Claim claim) {
+            return 0;
+        }
+        
+        @Override
+        public long appendStatusChange(Claim claim) {
+            throw new IllegalStateException("Write-ahead log is not writable");
+        }
+        
+        @Override
+        public void awaitDurable(long position) {
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.insurance.claims.service;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.WriteAheadLog;
+import com.insurance.claims.persistence.WriteAheadLog.FsyncPolicy;
+import com.insurance.claims.store.ClaimStore;
+import com.insurance.claims.store.CompactClaimStore;
+import com.insurance.claims.store.ConcurrentClaimStore;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testDurableWrites_OnVirtualThreads_NeverPinCarrier() throws Exception {
+        List<ClaimStore> stores = List.of(new ConcurrentClaimStore(), new CompactClaimStore());
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            for (int s = 0; s < stores.size(); s++) {
+                try (WriteAheadLog wal = new WriteAheadLog(tempDir.resolve("wal-" + s), FsyncPolicy.ALWAYS, Duration.ofMillis(5))) {
+                    ClaimService claimService = new ClaimService(stores.get(s), wal);
+                    runOnVirtualThreads(claimService, 200);
+                    assertEquals(200 * 10, claimService.getClaimsCount());
+                }
+            }
+            recording.stop();
+            
+            Path dump = tempDir.resolve("pinning.jfr");
+            recording.dump(dump);
+            List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump);
+            assertTrue(pinned.isEmpty(), () -> "Virtual threads pinned their carrier:\n" + pinned.get(0));
+        }
+    }
+    
+    private static void runOnVirtualThreads(ClaimService claimService, int threads) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        // Distinct claim types also exercise the compact store's type dictionary
+                        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Type" + thread, "Claim " + i));
+                        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+                        claimService.getClaimById(claim.getId());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.metrics.ClaimMetrics;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.persistence.JdbcClaimBackingStore;
+import com.insurance.claims.persistence.WriteBehindJournal;
+import com.insurance.claims.service.ClaimService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingClaimStoreTest {
+    
+    /** Room for about a dozen short claims */
+    private static final long SMALL_CACHE_BYTES = 10 * 400;
+    
+    @Test
+    public void testFindById_EvictedClaim_IsReadThrough() {
+        Map<Long, Claim> backing = new ConcurrentHashMap<>();
+        AtomicInteger loads = new AtomicInteger();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CachingClaimStore store = new CachingClaimStore(id -> {
+            loads.incrementAndGet();
+            return backing.get(id);
+        }, SMALL_CACHE_BYTES, new ClaimMetrics(registry), Runnable::run);
+        
+        for (long id = 1; id <= 100; id++) {
+            Claim claim = claim(id);
+            backing.put(id, claim);
+            store.save(claim);
+        }
+        
+        assertTrue(store.size() < 20);
+        assertFalse(store.holdsAllClaims());
+        for (long id = 1; id <= 100; id++) {
+            assertEquals(id, store.findById(id).orElseThrow().getId());
+        }
+        assertTrue(loads.get() >= 80);
+        assertTrue(store.findById(1000).isEmpty());
+        assertTrue(registry.get("cache.evictions").tag("cache", "claims").functionCounter().count() >= 80);
+        assertEquals(1, registry.get("claims.cache.load").tag("result", "absent").timer().count());
+        assertTrue(registry.get("claims.cache.hit.ratio").gauge().value() < 0.5);
+    }
+    
+    @Test
+    public void testFindById_ConcurrentMisses_ShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        CachingClaimStore store = new CachingClaimStore(id -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            try {
+                releaseLoad.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return claim(id);
+        }, SMALL_CACHE_BYTES, ClaimMetrics.NONE, Runnable::run);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<Claim>>> lookups = new ArrayList<>();
+            lookups.add(executor.submit(() -> store.findById(42)));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                lookups.add(executor.submit(() -> store.findById(42)));
+            }
+            Thread.sleep(50);
+            releaseLoad.countDown();
+            
+            Claim first = lookups.get(0).get(5, TimeUnit.SECONDS).orElseThrow();
+            for (Future<Optional<Claim>> lookup : lookups) {
+                assertSame(first, lookup.get(5, TimeUnit.SECONDS).orElseThrow());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testClaimService_CacheSmallerThanClaimSet_ServesEveryClaimFromDatabase() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:caching-store;DB_CLOSE_DELAY=-1");
+        try (WriteBehindJournal journal = new WriteBehindJournal(new JdbcClaimBackingStore(dataSource), 50, 10_000, Duration.ofMillis(10))) {
+            CachingClaimStore store = new CachingClaimStore(journal::load, SMALL_CACHE_BYTES, ClaimMetrics.NONE, Runnable::run);
+            ClaimService claimService = new ClaimService(store, journal);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!claimService.isReady()) {
+                assertTrue(System.nanoTime() < deadline);
+                Thread.sleep(5);
+            }
+            
+            List<Claim> created = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                created.add(claimService.createClaim(new ClaimRequest(12345L + i % 5, "Auto", "Claim " + i)));
+            }
+            // Evicted claims are updated through their pending change or database row
+            for (int i = 0; i < 200; i += 2) {
+                claimService.updateClaimStatus(created.get(i).getId(), ClaimStatus.UNDER_REVIEW);
+            }
+            
+            assertTrue(store.size() < 200);
+            assertEquals(200, claimService.getClaimsCount());
+            for (int i = 0; i < 200; i++) {
+                Claim claim = claimService.getClaimById(created.get(i).getId()).orElseThrow();
+                assertEquals(i % 2 == 0 ? ClaimStatus.UNDER_REVIEW : ClaimStatus.SUBMITTED, claim.getStatus());
+                assertEquals(i % 2 == 0 ? 1 : 0, claim.getVersion());
+            }
+            AtomicInteger exported = new AtomicInteger();
+            claimService.forEachClaim(null, null, null, claim -> exported.incrementAndGet());
+            assertEquals(200, exported.get());
+            assertEquals(40, claimService.searchClaims(12345L, null, null, null, 500).getClaims().size());
+        }
+    }
+    
+    private static Claim claim(long id) {
+        return new Claim(id, 12345L, "Auto", "Claim " + id);
+    }
+}
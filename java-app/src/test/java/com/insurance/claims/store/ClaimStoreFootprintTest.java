@@ -0,0 +1,107 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap footprint report comparing the claim store layouts, measured with JOL.
+ */
+public class ClaimStoreFootprintTest {
+    
+    private static final int CLAIMS = 20_000;
+    private static final String[] TYPES = {"Auto", "Home", "Health", "Life"};
+    private static final ClaimStatus[] STATUSES = ClaimStatus.values();
+    
+    @Test
+    public void testFootprint_CompactStoreUsesLessHeapPerClaim() {
+        double concurrentBytes = bytesPerClaim(new ConcurrentClaimStore());
+        double compactBytes = bytesPerClaim(new CompactClaimStore());
+        
+        System.out.printf("%nClaim store footprint (%,d claims, descriptions included)%n", CLAIMS);
+        System.out.printf("  %-22s %10.1f bytes/claim%n", "ConcurrentClaimStore", concurrentBytes);
+        System.out.printf("  %-22s %10.1f bytes/claim%n", "CompactClaimStore", compactBytes);
+        System.out.printf("  %-22s %10.1f%%%n", "savings", 100 * (1 - compactBytes / concurrentBytes));
+        
+        assertTrue(compactBytes < concurrentBytes,
+                "compact layout should be smaller: " + compactBytes + " vs " + concurrentBytes);
+    }
+    
+    @Test
+    public void testCompactStore_RoundTripsEveryField() {
+        CompactClaimStore store = new CompactClaimStore();
+        Claim claim = newClaim(7L).withStatus(ClaimStatus.DENIED, LocalDateTime.now());
+        store.save(claim);
+        
+        Claim stored = store.findById(7L).orElseThrow();
+        
+        assertEquals(claim.getId(), stored.getId());
+        assertEquals(claim.getCustomerId(), stored.getCustomerId());
+        assertEquals(claim.getClaimType(), stored.getClaimType());
+        assertEquals(claim.getDescription(), stored.getDescription());
+        assertEquals(claim.getStatus(), stored.getStatus());
+        assertEquals(claim.getCreatedAt(), stored.getCreatedAt());
+        assertEquals(claim.getUpdatedAt(), stored.getUpdatedAt());
+    }
+    
+    @Test
+    public void testCompactStore_SequentialAndSnowflakeIds_SpreadOverSlots() {
+        CompactClaimStore sequential = new CompactClaimStore();
+        CompactClaimStore snowflake = new CompactClaimStore();
+        for (long i = 1; i <= CLAIMS; i++) {
+            sequential.save(newClaim(i));
+            // Millisecond timestamp, worker and sequence fields as SnowflakeClaimIdGenerator lays them out
+            snowflake.save(newClaim(((1_000_000L + i / 64) << 22) | (5L << 12) | (i % 64)));
+        }
+        
+        // Linear probing stays well under two slots per lookup at up to 75% load when hashes spread
+        assertTrue(sequential.averageProbeLength() < 2, "sequential: " + sequential.averageProbeLength());
+        assertTrue(snowflake.averageProbeLength() < 2, "snowflake: " + snowflake.averageProbeLength());
+    }
+    
+    @Test
+    public void testCompactStore_TypesPastDictionaryCap_StoredAsStringsAndClearResets() {
+        CompactClaimStore store = new CompactClaimStore();
+        int claims = CompactClaimStore.MAX_DICTIONARY_TYPES + 500;
+        for (long id = 1; id <= claims; id++) {
+            store.save(newClaim(id, "Type " + id));
+        }
+        // A claim whose type moves from a string back into the dictionary
+        store.save(newClaim(claims, "Type 1"));
+        
+        assertEquals(CompactClaimStore.MAX_DICTIONARY_TYPES, store.dictionarySize());
+        for (long id = 1; id < claims; id++) {
+            assertEquals("Type " + id, store.findById(id).orElseThrow().getClaimType());
+        }
+        assertEquals("Type 1", store.findById(claims).orElseThrow().getClaimType());
+        
+        store.clear();
+        assertEquals(0, store.dictionarySize());
+        store.save(newClaim(1L));
+        assertEquals(TYPES[1], store.findById(1L).orElseThrow().getClaimType());
+    }
+    
+    private static double bytesPerClaim(ClaimStore store) {
+        long empty = GraphLayout.parseInstance(store).totalSize();
+        for (long id = 1; id <= CLAIMS; id++) {
+            store.save(newClaim(id));
+        }
+        assertEquals(CLAIMS, store.size());
+        return (GraphLayout.parseInstance(store).totalSize() - empty) / (double) CLAIMS;
+    }
+    
+    private static Claim newClaim(long id) {
+        return newClaim(id, TYPES[(int) (id % TYPES.length)]);
+    }
+    
+    private static Claim newClaim(long id, String claimType) {
+        LocalDateTime now = LocalDateTime.now();
+        return new Claim(id, 10_000L + id % 997, claimType, "Synthetic claim " + id,
+                STATUSES[(int) (id % STATUSES.length)], now, now, 0);
+    }
+}
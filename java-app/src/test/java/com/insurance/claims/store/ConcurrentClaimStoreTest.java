@@ -0,0 +1,202 @@
+package com.insurance.claims.store;
+
+import com.insurance.claims.dto.ClaimRequest;
+import com.insurance.claims.dto.ClaimStats;
+import com.insurance.claims.exception.ClaimVersionConflictException;
+import com.insurance.claims.exception.InvalidStatusTransitionException;
+import com.insurance.claims.model.Claim;
+import com.insurance.claims.model.ClaimStatus;
+import com.insurance.claims.service.ClaimService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentClaimStoreTest {
+    
+    private static final int THREADS = 64;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    
+    private ExecutorService executor;
+    
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testConcurrentCreates_NoLostClaimsOrDuplicateIds() throws Exception {
+        ClaimService claimService = new ClaimService(new ConcurrentClaimStore());
+        claimService.clearAllClaims();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Stress claim " + i));
+                ids.add(claim.getId());
+            }
+        });
+        
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, claimService.getClaimsCount());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, ids.size());
+        for (Long id : ids) {
+            assertTrue(claimService.getClaimById(id).isPresent());
+        }
+    }
+    
+    @Test
+    public void testConcurrentUpdatesToSameClaim_NoLostUpdates() throws Exception {
+        ConcurrentClaimStore store = new ConcurrentClaimStore();
+        Claim claim = new Claim(1L, 0L, "Auto", "Contended claim");
+        store.save(claim);
+        
+        // Read-modify-write on the same claim from every thread; any lost update shows up in the total
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                store.update(1L, current -> current.withStatus(current.getStatus() == ClaimStatus.SUBMITTED
+                        ? ClaimStatus.UNDER_REVIEW : ClaimStatus.SUBMITTED, LocalDateTime.now()));
+            }
+        });
+        
+        Claim result = store.findById(1L).orElseThrow();
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, result.getVersion());
+        // An even number of toggles must land back on the initial status
+        assertEquals(ClaimStatus.SUBMITTED, result.getStatus());
+    }
+    
+    @Test
+    public void testConcurrentCompareAndSetOnSameClaim_EverySuccessIsAVersion() throws Exception {
+        ClaimService claimService = new ClaimService(new ConcurrentClaimStore());
+        claimService.clearAllClaims();
+        Claim claim = claimService.createClaim(new ClaimRequest(12345L, "Auto", "Contended claim"));
+        claimService.updateClaimStatus(claim.getId(), ClaimStatus.UNDER_REVIEW);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        
+        // Every thread reads the version and tries to flip UNDER_REVIEW <-> DENIED, retrying on conflict
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD / 10; i++) {
+                while (true) {
+                    Claim current = claimService.getClaimById(claim.getId()).orElseThrow();
+                    int version = current.getVersion();
+                    ClaimStatus target = current.getStatus() == ClaimStatus.DENIED
+                            ? ClaimStatus.UNDER_REVIEW : ClaimStatus.DENIED;
+                    try {
+                        claimService.changeClaimStatus(claim.getId(), target, c -> c.getVersion() == version);
+                        successes.incrementAndGet();
+                        break;
+                    } catch (ClaimVersionConflictException | InvalidStatusTransitionException ex) {
+                        // The transition check catches a status read that raced ahead of the version read
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }
+        });
+        
+        Claim result = claimService.getClaimById(claim.getId()).orElseThrow();
+        assertEquals(THREADS * (OPERATIONS_PER_THREAD / 10), successes.get());
+        // One version for the initial review plus one per successful compare-and-set
+        assertEquals(1 + successes.get(), result.getVersion());
+        System.out.printf("CAS on one claim: %d successes, %d conflicts%n", successes.get(), conflicts.get());
+    }
+    
+    @Test
+    public void testConcurrentChurn_StatisticsMatchFullRecount() throws Exception {
+        ClaimService claimService = new ClaimService(new ConcurrentClaimStore());
+        claimService.clearAllClaims();
+        String[] types = {"Auto", "Home", "Health", "Travel"};
+        ClaimStatus[] statuses = ClaimStatus.values();
+        List<Long> ids = new CopyOnWriteArrayList<>();
+        
+        // Creates, unchecked and checked status changes and stats reads, all interleaved
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD / 4; i++) {
+                int operation = random.nextInt(10);
+                if (operation < 4 || ids.isEmpty()) {
+                    Claim claim = claimService.createClaim(new ClaimRequest(
+                            (long) random.nextInt(200), types[random.nextInt(types.length)], "Churn claim " + i));
+                    ids.add(claim.getId());
+                } else if (operation < 7) {
+                    claimService.updateClaimStatus(ids.get(random.nextInt(ids.size())), statuses[random.nextInt(statuses.length)]);
+                } else if (operation < 9) {
+                    try {
+                        claimService.changeClaimStatus(ids.get(random.nextInt(ids.size())),
+                                statuses[random.nextInt(statuses.length)], c -> true);
+                    } catch (InvalidStatusTransitionException ex) {
+                        // Rejected transitions must leave the counts alone
+                    }
+                } else {
+                    assertTrue(claimService.getClaimStats().getTotal() >= 0);
+                }
+            }
+        });
+        
+        Map<ClaimStatus, Long> byStatus = new EnumMap<>(ClaimStatus.class);
+        for (ClaimStatus status : statuses) {
+            byStatus.put(status, 0L);
+        }
+        Map<String, Long> byType = new TreeMap<>();
+        Map<Long, Long> byCustomer = new HashMap<>();
+        claimService.forEachClaim(null, null, null, claim -> {
+            byStatus.merge(claim.getStatus(), 1L, Long::sum);
+            byType.merge(claim.getClaimType(), 1L, Long::sum);
+            byCustomer.merge(claim.getCustomerId(), 1L, Long::sum);
+        });
+        
+        ClaimStats stats = claimService.getClaimStats();
+        assertEquals(ids.size(), stats.getTotal());
+        assertEquals(byStatus, stats.getByStatus());
+        assertEquals(byType, stats.getByType());
+        for (long customerId = 0; customerId < 200; customerId++) {
+            assertEquals(byCustomer.getOrDefault(customerId, 0L), claimService.getCustomerClaimStats(customerId).getTotal());
+        }
+    }
+    
+    @Test
+    public void testUpdate_NonExistingClaim_ReturnsEmpty() {
+        ConcurrentClaimStore store = new ConcurrentClaimStore();
+        
+        assertFalse(store.update(42L, claim -> claim).isPresent());
+        assertEquals(0, store.size());
+    }
+    
+    private void runConcurrently(Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}